@@ -2,6 +2,7 @@ package com.fintrack.config;
 
 import com.fintrack.model.Category;
 import com.fintrack.repository.CategoryRepository;
+import com.fintrack.service.CategoryDictionary;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -23,11 +24,15 @@ public class CategoryInitializer {
     );
 
     @Bean
-    public ApplicationRunner categorySeedRunner(CategoryRepository categoryRepository) {
-        return args -> DEFAULT_CATEGORIES.stream()
-                .filter(name -> !categoryRepository.existsByNameAndUserIsNull(name))
-                .map(name -> new Category(null, name, name + " expenses", null))
-                .forEach(categoryRepository::save);
+    public ApplicationRunner categorySeedRunner(CategoryRepository categoryRepository,
+                                                CategoryDictionary categoryDictionary) {
+        return args -> {
+            DEFAULT_CATEGORIES.stream()
+                    .filter(name -> !categoryRepository.existsByNameAndUserIsNull(name))
+                    .map(name -> new Category(null, name, name + " expenses", null))
+                    .forEach(categoryRepository::save);
+            categoryDictionary.invalidateDefaults();
+        };
     }
 }
 
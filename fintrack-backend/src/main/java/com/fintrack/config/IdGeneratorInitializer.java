@@ -0,0 +1,48 @@
+package com.fintrack.config;
+
+import com.fintrack.model.Expense;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the pooled expense id generator past every existing id, so a database that was filled
+ * through the old IDENTITY column never hands out a taken id. Runs before the web server starts
+ * accepting requests.
+ */
+@Component
+public class IdGeneratorInitializer implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(IdGeneratorInitializer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdGeneratorInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM expenses", Long.class);
+        long floor = maxId + Expense.ID_ALLOCATION_SIZE + 1;
+        int updated = jdbcTemplate.update(
+                "UPDATE " + Expense.ID_GENERATOR_TABLE + " SET next_val = ? WHERE sequence_name = ? AND next_val < ?",
+                floor, Expense.ID_GENERATOR_KEY, floor);
+        if (updated == 0) {
+            Integer rows = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM " + Expense.ID_GENERATOR_TABLE + " WHERE sequence_name = ?",
+                    Integer.class, Expense.ID_GENERATOR_KEY);
+            if (rows == null || rows == 0) {
+                jdbcTemplate.update(
+                        "INSERT INTO " + Expense.ID_GENERATOR_TABLE + " (sequence_name, next_val) VALUES (?, ?)",
+                        Expense.ID_GENERATOR_KEY, floor);
+                updated = 1;
+            }
+        }
+        if (updated > 0) {
+            log.info("Expense id generator aligned to start after id {}", maxId);
+        }
+    }
+}
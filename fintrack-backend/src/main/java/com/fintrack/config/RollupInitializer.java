@@ -0,0 +1,43 @@
+package com.fintrack.config;
+
+import com.fintrack.repository.ExpenseMonthlyRollupRepository;
+import com.fintrack.repository.ExpenseRepository;
+import com.fintrack.service.ExpenseRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Recomputes {@code expense_monthly_rollup} from {@code expenses}. Runs automatically when the
+ * rollup table is empty but expenses exist, or on demand with {@code --rebuild-rollups}.
+ */
+@Configuration
+public class RollupInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(RollupInitializer.class);
+
+    @Bean
+    public ApplicationRunner rollupRebuildRunner(ExpenseRollupService rollupService,
+                                                 ExpenseMonthlyRollupRepository rollupRepository,
+                                                 ExpenseRepository expenseRepository) {
+        return args -> {
+            boolean requested = args.containsOption("rebuild-rollups");
+            boolean missing = rollupRepository.count() == 0 && expenseRepository.count() > 0;
+            if (!requested && !missing) {
+                return;
+            }
+            Set<Long> userIds = new TreeSet<>(expenseRepository.findDistinctUserIds());
+            userIds.addAll(rollupRepository.findDistinctUserIds());
+            int buckets = 0;
+            for (Long userId : userIds) {
+                buckets += rollupService.rebuild(userId);
+            }
+            log.info("Rebuilt {} expense rollup buckets for {} users", buckets, userIds.size());
+        };
+    }
+}
@@ -1,22 +1,35 @@
 package com.fintrack.controller;
 
+import com.fintrack.dto.AnalyticsCacheStatsResponse;
 import com.fintrack.dto.CategorySummaryResponse;
+import com.fintrack.dto.DashboardResponse;
 import com.fintrack.dto.MonthlySummaryResponse;
 import com.fintrack.dto.PredictedExpenseResponse;
+import com.fintrack.dto.SeriesPointResponse;
 import com.fintrack.dto.TrendPointResponse;
 import com.fintrack.dto.YearlySummaryResponse;
 import com.fintrack.service.AnalyticsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/analytics")
 public class AnalyticsController {
 
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final AnalyticsService analyticsService;
 
     public AnalyticsController(AnalyticsService analyticsService) {
@@ -24,28 +37,63 @@ public class AnalyticsController {
     }
 
     @GetMapping("/monthly-summary")
-    public ResponseEntity<List<MonthlySummaryResponse>> monthlySummary() {
-        return ResponseEntity.ok(analyticsService.getMonthlySummary());
+    public ResponseEntity<List<MonthlySummaryResponse>> monthlySummary(WebRequest webRequest) {
+        return conditional(webRequest, analyticsService::getMonthlySummary);
     }
 
     @GetMapping("/yearly-summary")
-    public ResponseEntity<List<YearlySummaryResponse>> yearlySummary() {
-        return ResponseEntity.ok(analyticsService.getYearlySummary());
+    public ResponseEntity<List<YearlySummaryResponse>> yearlySummary(WebRequest webRequest) {
+        return conditional(webRequest, analyticsService::getYearlySummary);
     }
 
     @GetMapping("/by-category")
-    public ResponseEntity<List<CategorySummaryResponse>> categorySummary() {
-        return ResponseEntity.ok(analyticsService.getCategorySummary());
+    public ResponseEntity<List<CategorySummaryResponse>> categorySummary(WebRequest webRequest) {
+        return conditional(webRequest, analyticsService::getCategorySummary);
     }
 
     @GetMapping("/trends")
-    public ResponseEntity<List<TrendPointResponse>> trends() {
-        return ResponseEntity.ok(analyticsService.getTrends());
+    public ResponseEntity<List<TrendPointResponse>> trends(WebRequest webRequest) {
+        return conditional(webRequest, analyticsService::getTrends);
     }
 
     @GetMapping("/predicted-expense")
-    public ResponseEntity<PredictedExpenseResponse> predictedExpense() {
-        return ResponseEntity.ok(analyticsService.getPredictedExpense());
+    public ResponseEntity<PredictedExpenseResponse> predictedExpense(WebRequest webRequest) {
+        return conditional(webRequest, analyticsService::getPredictedExpense);
+    }
+
+    @GetMapping("/dashboard")
+    public ResponseEntity<DashboardResponse> dashboard(WebRequest webRequest) {
+        return conditional(webRequest, analyticsService::getDashboard);
+    }
+
+    @GetMapping("/series")
+    public ResponseEntity<List<SeriesPointResponse>> series(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "month") String granularity,
+            WebRequest webRequest) {
+        return conditional(webRequest, () -> analyticsService.getSeries(from, to, granularity));
     }
-}
 
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AnalyticsCacheStatsResponse> cacheStats() {
+        return ResponseEntity.ok(analyticsService.getCacheStats());
+    }
+
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Void> rebuildRollups() {
+        analyticsService.rebuildRollups();
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Answers 304 from the user's data version alone, before any query or aggregation runs.
+     */
+    private <T> ResponseEntity<T> conditional(WebRequest webRequest, Supplier<T> body) {
+        if (webRequest.checkNotModified("W/\"" + analyticsService.versionTag() + "\"")) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(body.get());
+    }
+}
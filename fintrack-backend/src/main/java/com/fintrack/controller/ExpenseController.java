@@ -1,19 +1,32 @@
 package com.fintrack.controller;
 
+import com.fintrack.dto.ExpenseBulkResponse;
+import com.fintrack.dto.ExpenseChangesResponse;
+import com.fintrack.dto.ExpenseFilter;
+import com.fintrack.dto.ExpensePageResponse;
+import com.fintrack.dto.ExpensePatchRequest;
 import com.fintrack.dto.ExpenseRequest;
 import com.fintrack.dto.ExpenseResponse;
 import com.fintrack.service.ExpenseService;
+import com.fintrack.service.IdempotencyService;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -21,37 +34,109 @@ import java.util.List;
 @RequestMapping("/expenses")
 public class ExpenseController {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final ExpenseService expenseService;
+    private final IdempotencyService idempotencyService;
 
-    public ExpenseController(ExpenseService expenseService) {
+    public ExpenseController(ExpenseService expenseService, IdempotencyService idempotencyService) {
         this.expenseService = expenseService;
+        this.idempotencyService = idempotencyService;
     }
 
     @PostMapping
-    public ResponseEntity<ExpenseResponse> createExpense(@Valid @RequestBody ExpenseRequest request) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(expenseService.createExpense(request));
+    public ResponseEntity<?> createExpense(@RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+                                           @Valid @RequestBody ExpenseRequest request) {
+        if (idempotencyKey == null) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(expenseService.createExpense(request));
+        }
+        IdempotencyService.Outcome outcome = idempotencyService.execute(
+                idempotencyKey, "POST /expenses", request, () -> expenseService.createExpense(request));
+        return idempotent(HttpStatus.CREATED, outcome);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<?> createExpenses(@RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+                                            @RequestBody List<ExpenseRequest> requests) {
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(expenseService.createExpenses(requests));
+        }
+        IdempotencyService.Outcome outcome = idempotencyService.execute(
+                idempotencyKey, "POST /expenses/batch", requests, () -> expenseService.createExpenses(requests));
+        return idempotent(HttpStatus.OK, outcome);
     }
 
+    /**
+     * The ETag is the user's data version, so a revalidation answers 304 before any query runs.
+     */
     @GetMapping
-    public ResponseEntity<List<ExpenseResponse>> getExpenses() {
-        return ResponseEntity.ok(expenseService.getExpenses());
+    public ResponseEntity<ExpensePageResponse> getExpenses(ExpenseFilter filter,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer limit,
+                                                           WebRequest webRequest) {
+        if (webRequest.checkNotModified("W/\"" + expenseService.versionTag() + "\"")) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(expenseService.getExpenses(filter, cursor, limit));
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<ExpenseChangesResponse> getChanges(@RequestParam(required = false) String since,
+                                                             @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(expenseService.getChanges(since, limit));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ExpenseResponse> getExpense(@PathVariable Long id) {
-        return ResponseEntity.ok(expenseService.getExpenseById(id));
+    public ResponseEntity<ExpenseResponse> getExpense(@PathVariable Long id, WebRequest webRequest) {
+        ExpenseResponse expense = expenseService.getExpenseById(id);
+        if (webRequest.checkNotModified(ExpenseETags.of(expense.getVersion()))) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(expense);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<ExpenseResponse> updateExpense(@PathVariable Long id,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                                          @Valid @RequestBody ExpenseRequest request) {
-        return ResponseEntity.ok(expenseService.updateExpense(id, request));
+        ExpenseResponse expense = expenseService.updateExpense(id, request, ExpenseETags.ifMatchVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ExpenseETags.of(expense.getVersion())).body(expense);
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<ExpenseResponse> patchExpense(@PathVariable Long id,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                        @Valid @RequestBody ExpensePatchRequest request) {
+        ExpenseResponse expense = expenseService.patchExpense(id, request, ExpenseETags.ifMatchVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ExpenseETags.of(expense.getVersion())).body(expense);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteExpense(@PathVariable Long id) {
-        expenseService.deleteExpense(id);
+    public ResponseEntity<Void> deleteExpense(@PathVariable Long id,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        expenseService.deleteExpense(id, ExpenseETags.ifMatchVersion(ifMatch));
         return ResponseEntity.noContent().build();
     }
+
+    @DeleteMapping
+    public ResponseEntity<ExpenseBulkResponse> deleteExpenses(ExpenseFilter filter) {
+        return ResponseEntity.ok(expenseService.deleteExpenses(filter));
+    }
+
+    @PostMapping("/recategorize")
+    public ResponseEntity<ExpenseBulkResponse> recategorizeExpenses(ExpenseFilter filter,
+                                                                    @RequestParam Long toCategoryId) {
+        return ResponseEntity.ok(expenseService.recategorizeExpenses(filter, toCategoryId));
+    }
+
+    private ResponseEntity<String> idempotent(HttpStatus status, IdempotencyService.Outcome outcome) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON);
+        if (outcome.isReplayed()) {
+            response.header(IDEMPOTENT_REPLAYED, "true");
+        }
+        return response.body(outcome.getBody());
+    }
 }
 
@@ -0,0 +1,36 @@
+package com.fintrack.controller;
+
+import com.fintrack.exceptions.PreconditionFailedException;
+
+/**
+ * An expense's ETag is its quoted version, so an {@code If-Match} value maps straight back to the
+ * version the client last read.
+ */
+final class ExpenseETags {
+
+    private ExpenseETags() {
+    }
+
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Returns the version named by an {@code If-Match} header, or {@code null} when the header is
+     * absent or {@code *}. Weak or unparseable tags can never match, so they fail the precondition.
+     */
+    static Long ifMatchVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new PreconditionFailedException("If-Match must be a single strong ETag");
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("Expense has been modified");
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.fintrack.controller;
+
+import com.fintrack.dto.ExpenseImportResponse;
+import com.fintrack.service.ExpenseImportService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+@RestController
+@RequestMapping("/expenses/imports")
+public class ExpenseImportController {
+
+    private final ExpenseImportService importService;
+
+    public ExpenseImportController(ExpenseImportService importService) {
+        this.importService = importService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ExpenseImportResponse> submit(@RequestParam("file") MultipartFile file,
+                                                        @RequestParam(defaultValue = "false") boolean dedupe) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(importService.submit(file, dedupe));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ExpenseImportResponse> status(@PathVariable String id) {
+        return ResponseEntity.ok(importService.getImport(id));
+    }
+}
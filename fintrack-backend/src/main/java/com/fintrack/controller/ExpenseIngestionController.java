@@ -0,0 +1,37 @@
+package com.fintrack.controller;
+
+import com.fintrack.dto.ExpenseIngestionResponse;
+import com.fintrack.dto.ExpenseRequest;
+import com.fintrack.service.ExpenseIngestionService;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/expenses/ingest")
+@ConditionalOnProperty(name = "app.ingest.enabled", havingValue = "true")
+public class ExpenseIngestionController {
+
+    private final ExpenseIngestionService ingestionService;
+
+    public ExpenseIngestionController(ExpenseIngestionService ingestionService) {
+        this.ingestionService = ingestionService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ExpenseIngestionResponse> ingest(@Valid @RequestBody ExpenseRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ingestionService.submit(request));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ExpenseIngestionResponse> status(@PathVariable String id) {
+        return ResponseEntity.ok(ingestionService.getIngestion(id));
+    }
+}
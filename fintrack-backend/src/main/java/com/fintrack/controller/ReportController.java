@@ -1,43 +1,148 @@
 package com.fintrack.controller;
 
+import com.fintrack.dto.ReportFilter;
+import com.fintrack.service.ReportCache;
+import com.fintrack.service.ReportFormat;
 import com.fintrack.service.ReportService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
-import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/reports")
 public class ReportController {
 
+    private static final int GZIP_BUFFER_SIZE = 16 * 1024;
+
     private final ReportService reportService;
+    private final ReportCache reportCache;
 
-    public ReportController(ReportService reportService) {
+    public ReportController(ReportService reportService, ReportCache reportCache) {
         this.reportService = reportService;
+        this.reportCache = reportCache;
     }
 
     @GetMapping("/export/csv")
-    public ResponseEntity<byte[]> exportCsv() {
-        ByteArrayInputStream stream = reportService.generateCsvReport();
-        byte[] bytes = stream.readAllBytes();
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=expenses.csv")
-                .body(bytes);
+    public void exportCsv(ReportFilter filter,
+                          HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        exportText(ReportFormat.CSV, filter, false, request, response, out -> reportService.writeCsvReport(filter, out));
+    }
+
+    @GetMapping("/export/csv.gz")
+    public void exportCsvGzip(ReportFilter filter,
+                              HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        exportText(ReportFormat.CSV, filter, true, request, response, out -> reportService.writeCsvReport(filter, out));
+    }
+
+    @GetMapping("/export/ndjson")
+    public void exportNdjson(ReportFilter filter,
+                             HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        exportText(ReportFormat.NDJSON, filter, false, request, response,
+                out -> reportService.writeNdjsonReport(filter, out));
+    }
+
+    @GetMapping("/export/ndjson.gz")
+    public void exportNdjsonGzip(ReportFilter filter,
+                                 HttpServletRequest request,
+                                 HttpServletResponse response) throws IOException {
+        exportText(ReportFormat.NDJSON, filter, true, request, response,
+                out -> reportService.writeNdjsonReport(filter, out));
+    }
+
+    @GetMapping(value = "/export/pdf", params = "large=true")
+    public void exportLargePdf(ReportFilter filter,
+                               HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+        response.setContentType(ReportFormat.PDF.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=expenses.pdf");
+        export(reportService.cacheKey(ReportFormat.PDF, "large", filter), request, response,
+                out -> reportService.writeLargePdfReport(filter, out));
     }
 
     @GetMapping("/export/pdf")
-    public ResponseEntity<byte[]> exportPdf() {
-        ByteArrayInputStream stream = reportService.generatePdfReport();
-        byte[] bytes = stream.readAllBytes();
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_PDF)
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=expenses.pdf")
-                .body(bytes);
+    public void exportPdf(ReportFilter filter,
+                          HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        response.setContentType(ReportFormat.PDF.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=expenses.pdf");
+        export(reportService.cacheKey(ReportFormat.PDF, "", filter), request, response,
+                out -> reportService.generatePdfReport(filter).transferTo(out));
+    }
+
+    /**
+     * Text formats are gzipped either as a {@code .gz} file download or, on the plain URL, as a
+     * {@code Content-Encoding} when the client accepts it.
+     */
+    private void exportText(ReportFormat format,
+                            ReportFilter filter,
+                            boolean gzipFile,
+                            HttpServletRequest request,
+                            HttpServletResponse response,
+                            ReportCache.ReportWriter writer) throws IOException {
+        boolean gzip = gzipFile || acceptsGzip(request);
+        String filename = "expenses." + format.getExtension();
+        if (gzipFile) {
+            response.setContentType("application/gzip");
+            filename += ".gz";
+        } else {
+            response.setContentType(format.getContentType());
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (gzip) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+        }
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename);
+        String key = reportService.cacheKey(format, gzip ? "gzip" : "", filter);
+        export(key, request, response, gzip ? gzipped(writer) : writer);
+    }
+
+    private void export(String key,
+                        HttpServletRequest request,
+                        HttpServletResponse response,
+                        ReportCache.ReportWriter writer) throws IOException {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (new ServletWebRequest(request, response).checkNotModified("\"" + key + "\"")) {
+            return;
+        }
+        reportCache.serve(key, writer, request, response);
     }
-}
 
+    private ReportCache.ReportWriter gzipped(ReportCache.ReportWriter writer) {
+        return out -> {
+            GZIPOutputStream gzip = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+            writer.write(gzip);
+            gzip.finish();
+            out.flush();
+        };
+    }
+
+    private boolean acceptsGzip(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (header == null) {
+            return false;
+        }
+        for (String token : header.split(",")) {
+            String[] parts = token.trim().split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                if (parts[i].replace(" ", "").matches("q=0(\\.0{0,3})?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
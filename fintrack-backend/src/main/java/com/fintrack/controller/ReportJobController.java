@@ -0,0 +1,48 @@
+package com.fintrack.controller;
+
+import com.fintrack.dto.ReportFilter;
+import com.fintrack.dto.ReportJobResponse;
+import com.fintrack.service.ReportJobService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/reports/jobs")
+public class ReportJobController {
+
+    private final ReportJobService reportJobService;
+
+    public ReportJobController(ReportJobService reportJobService) {
+        this.reportJobService = reportJobService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ReportJobResponse> submit(@RequestParam String format, ReportFilter filter) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reportJobService.submit(format, filter));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ReportJobResponse> status(@PathVariable String id) {
+        return ResponseEntity.ok(reportJobService.getJob(id));
+    }
+
+    @GetMapping("/{id}/download")
+    public ResponseEntity<Resource> download(@PathVariable String id) {
+        ReportJobService.SpooledReport report = reportJobService.getDownload(id);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(report.getFormat().getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=expenses." + report.getFormat().getExtension())
+                .body(new FileSystemResource(report.getFile()));
+    }
+}
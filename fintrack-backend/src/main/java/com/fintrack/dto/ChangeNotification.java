@@ -0,0 +1,21 @@
+package com.fintrack.dto;
+
+import java.util.List;
+
+public class ChangeNotification {
+    private final String source;
+    private final List<RollupDelta> deltas;
+
+    public ChangeNotification(String source, List<RollupDelta> deltas) {
+        this.source = source;
+        this.deltas = deltas;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public List<RollupDelta> getDeltas() {
+        return deltas;
+    }
+}
@@ -0,0 +1,43 @@
+package com.fintrack.dto;
+
+import java.util.List;
+
+public class DashboardResponse {
+    private final List<MonthlySummaryResponse> monthlySummary;
+    private final List<YearlySummaryResponse> yearlySummary;
+    private final List<CategorySummaryResponse> categorySummary;
+    private final List<TrendPointResponse> trends;
+    private final PredictedExpenseResponse predictedExpense;
+
+    public DashboardResponse(List<MonthlySummaryResponse> monthlySummary,
+                             List<YearlySummaryResponse> yearlySummary,
+                             List<CategorySummaryResponse> categorySummary,
+                             List<TrendPointResponse> trends,
+                             PredictedExpenseResponse predictedExpense) {
+        this.monthlySummary = monthlySummary;
+        this.yearlySummary = yearlySummary;
+        this.categorySummary = categorySummary;
+        this.trends = trends;
+        this.predictedExpense = predictedExpense;
+    }
+
+    public List<MonthlySummaryResponse> getMonthlySummary() {
+        return monthlySummary;
+    }
+
+    public List<YearlySummaryResponse> getYearlySummary() {
+        return yearlySummary;
+    }
+
+    public List<CategorySummaryResponse> getCategorySummary() {
+        return categorySummary;
+    }
+
+    public List<TrendPointResponse> getTrends() {
+        return trends;
+    }
+
+    public PredictedExpenseResponse getPredictedExpense() {
+        return predictedExpense;
+    }
+}
@@ -0,0 +1,33 @@
+package com.fintrack.dto;
+
+import java.util.Map;
+
+public class ExpenseBatchItemResult {
+    private final int index;
+    private final String status;
+    private final ExpenseResponse expense;
+    private final Map<String, String> errors;
+
+    public ExpenseBatchItemResult(int index, String status, ExpenseResponse expense, Map<String, String> errors) {
+        this.index = index;
+        this.status = status;
+        this.expense = expense;
+        this.errors = errors;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public ExpenseResponse getExpense() {
+        return expense;
+    }
+
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,27 @@
+package com.fintrack.dto;
+
+import java.util.List;
+
+public class ExpenseBatchResponse {
+    private final int created;
+    private final int rejected;
+    private final List<ExpenseBatchItemResult> results;
+
+    public ExpenseBatchResponse(int created, int rejected, List<ExpenseBatchItemResult> results) {
+        this.created = created;
+        this.rejected = rejected;
+        this.results = results;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public List<ExpenseBatchItemResult> getResults() {
+        return results;
+    }
+}
@@ -0,0 +1,13 @@
+package com.fintrack.dto;
+
+public class ExpenseBulkResponse {
+    private final int affected;
+
+    public ExpenseBulkResponse(int affected) {
+        this.affected = affected;
+    }
+
+    public int getAffected() {
+        return affected;
+    }
+}
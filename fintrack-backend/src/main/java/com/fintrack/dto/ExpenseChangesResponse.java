@@ -0,0 +1,36 @@
+package com.fintrack.dto;
+
+import java.util.List;
+
+public class ExpenseChangesResponse {
+    private final List<ExpenseResponse> upserts;
+    private final List<Long> deletes;
+    private final String since;
+    private final boolean hasMore;
+
+    public ExpenseChangesResponse(List<ExpenseResponse> upserts, List<Long> deletes, String since, boolean hasMore) {
+        this.upserts = upserts;
+        this.deletes = deletes;
+        this.since = since;
+        this.hasMore = hasMore;
+    }
+
+    public List<ExpenseResponse> getUpserts() {
+        return upserts;
+    }
+
+    public List<Long> getDeletes() {
+        return deletes;
+    }
+
+    /**
+     * Position to pass as {@code since} on the next sync.
+     */
+    public String getSince() {
+        return since;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+}
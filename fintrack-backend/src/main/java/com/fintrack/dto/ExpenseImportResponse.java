@@ -0,0 +1,79 @@
+package com.fintrack.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ExpenseImportResponse {
+    private final String id;
+    private final String status;
+    private final long rowsRead;
+    private final long rowsImported;
+    private final long rowsDuplicate;
+    private final long rowsRejected;
+    private final double rowsPerSecond;
+    private final List<ImportRowError> errors;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime completedAt;
+
+    public ExpenseImportResponse(String id,
+                                 String status,
+                                 long rowsRead,
+                                 long rowsImported,
+                                 long rowsDuplicate,
+                                 long rowsRejected,
+                                 double rowsPerSecond,
+                                 List<ImportRowError> errors,
+                                 LocalDateTime createdAt,
+                                 LocalDateTime completedAt) {
+        this.id = id;
+        this.status = status;
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.rowsDuplicate = rowsDuplicate;
+        this.rowsRejected = rowsRejected;
+        this.rowsPerSecond = rowsPerSecond;
+        this.errors = errors;
+        this.createdAt = createdAt;
+        this.completedAt = completedAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public long getRowsDuplicate() {
+        return rowsDuplicate;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public List<ImportRowError> getErrors() {
+        return errors;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+}
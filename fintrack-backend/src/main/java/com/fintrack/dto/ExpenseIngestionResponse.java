@@ -0,0 +1,50 @@
+package com.fintrack.dto;
+
+import java.time.LocalDateTime;
+
+public class ExpenseIngestionResponse {
+    private final String id;
+    private final String status;
+    private final Long expenseId;
+    private final String error;
+    private final LocalDateTime acceptedAt;
+    private final LocalDateTime completedAt;
+
+    public ExpenseIngestionResponse(String id,
+                                    String status,
+                                    Long expenseId,
+                                    String error,
+                                    LocalDateTime acceptedAt,
+                                    LocalDateTime completedAt) {
+        this.id = id;
+        this.status = status;
+        this.expenseId = expenseId;
+        this.error = error;
+        this.acceptedAt = acceptedAt;
+        this.completedAt = completedAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Long getExpenseId() {
+        return expenseId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public LocalDateTime getAcceptedAt() {
+        return acceptedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+}
@@ -0,0 +1,21 @@
+package com.fintrack.dto;
+
+import java.util.List;
+
+public class ExpensePageResponse {
+    private final List<ExpenseResponse> items;
+    private final String nextCursor;
+
+    public ExpensePageResponse(List<ExpenseResponse> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<ExpenseResponse> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
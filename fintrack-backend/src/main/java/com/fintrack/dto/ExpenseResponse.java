@@ -11,6 +11,7 @@ public class ExpenseResponse {
     private final String description;
     private final LocalDate date;
     private final String paymentMode;
+    private final long version;
 
     public ExpenseResponse(Long id,
                            Long userId,
@@ -18,7 +19,8 @@ public class ExpenseResponse {
                            BigDecimal amount,
                            String description,
                            LocalDate date,
-                           String paymentMode) {
+                           String paymentMode,
+                           long version) {
         this.id = id;
         this.userId = userId;
         this.categoryId = categoryId;
@@ -26,6 +28,7 @@ public class ExpenseResponse {
         this.description = description;
         this.date = date;
         this.paymentMode = paymentMode;
+        this.version = version;
     }
 
     public Long getId() {
@@ -55,5 +58,8 @@ public class ExpenseResponse {
     public String getPaymentMode() {
         return paymentMode;
     }
-}
 
+    public long getVersion() {
+        return version;
+    }
+}
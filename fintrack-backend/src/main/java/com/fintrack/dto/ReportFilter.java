@@ -0,0 +1,17 @@
+package com.fintrack.dto;
+
+public class ReportFilter extends ExpenseFilter {
+
+    private boolean summary;
+
+    public ReportFilter() {
+    }
+
+    public boolean isSummary() {
+        return summary;
+    }
+
+    public void setSummary(boolean summary) {
+        this.summary = summary;
+    }
+}
@@ -0,0 +1,50 @@
+package com.fintrack.dto;
+
+import java.time.LocalDateTime;
+
+public class ReportJobResponse {
+    private final String id;
+    private final String format;
+    private final String status;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime completedAt;
+    private final String error;
+
+    public ReportJobResponse(String id,
+                             String format,
+                             String status,
+                             LocalDateTime createdAt,
+                             LocalDateTime completedAt,
+                             String error) {
+        this.id = id;
+        this.format = format;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.completedAt = completedAt;
+        this.error = error;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
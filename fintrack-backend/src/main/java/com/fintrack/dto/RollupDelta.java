@@ -0,0 +1,36 @@
+package com.fintrack.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Change applied to one (month, category) total by a committed write.
+ */
+public class RollupDelta {
+    private final String month;
+    private final Long categoryId;
+    private final BigDecimal amount;
+    private final long count;
+
+    public RollupDelta(String month, Long categoryId, BigDecimal amount, long count) {
+        this.month = month;
+        this.categoryId = categoryId;
+        this.amount = amount;
+        this.count = count;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,28 @@
+package com.fintrack.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class SeriesPointResponse {
+    private final LocalDate periodStart;
+    private final LocalDate periodEnd;
+    private final BigDecimal total;
+
+    public SeriesPointResponse(LocalDate periodStart, LocalDate periodEnd, BigDecimal total) {
+        this.periodStart = periodStart;
+        this.periodEnd = periodEnd;
+        this.total = total;
+    }
+
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public LocalDate getPeriodEnd() {
+        return periodEnd;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+}
@@ -5,9 +5,12 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -17,11 +20,25 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "expenses")
+@Table(name = "expenses", indexes = {
+        @Index(name = "idx_expenses_user_date_id", columnList = "user_id, date, id"),
+        @Index(name = "idx_expenses_user_category_date_id", columnList = "user_id, category_id, date, id"),
+        @Index(name = "idx_expenses_user_change_seq_id", columnList = "user_id, change_seq, id")
+})
 public class Expense {
 
+    public static final String ID_GENERATOR_TABLE = "id_generators";
+    public static final String ID_GENERATOR_KEY = "expenses";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "expense_id")
+    @TableGenerator(name = "expense_id",
+            table = ID_GENERATOR_TABLE,
+            pkColumnName = "sequence_name",
+            valueColumnName = "next_val",
+            pkColumnValue = ID_GENERATOR_KEY,
+            allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(optional = false)
@@ -47,6 +64,14 @@ public class Expense {
     @Column(nullable = false)
     private String paymentMode;
 
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    // position in the owner's change feed; see ExpenseChangeSequence
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
     public Expense() {
     }
 
@@ -121,5 +146,16 @@ public class Expense {
     public void setPaymentMode(String paymentMode) {
         this.paymentMode = paymentMode;
     }
-}
 
+    public long getVersion() {
+        return version;
+    }
+
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public void setChangeSeq(long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+}
@@ -0,0 +1,34 @@
+package com.fintrack.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Last change sequence handed out for a user's expenses. Writers advance it first in their
+ * transaction, so its row lock orders a user's writes and a sequence number is only visible
+ * once every lower one has committed.
+ */
+@Entity
+@Table(name = "expense_change_sequences")
+public class ExpenseChangeSequence {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "last_seq", nullable = false)
+    private long lastSeq;
+
+    public ExpenseChangeSequence() {
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getLastSeq() {
+        return lastSeq;
+    }
+}
@@ -0,0 +1,107 @@
+package com.fintrack.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+@Entity
+@Table(name = "expense_monthly_rollup",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_rollup_user_period_category",
+                columnNames = {"user_id", "period_key", "category_id"}))
+public class ExpenseMonthlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // year * 100 + month, e.g. 202410
+    @Column(name = "period_key", nullable = false)
+    private int periodKey;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal total;
+
+    @Column(name = "expense_count", nullable = false)
+    private long expenseCount;
+
+    public ExpenseMonthlyRollup() {
+    }
+
+    public ExpenseMonthlyRollup(Long userId, int periodKey, Long categoryId, BigDecimal total, long expenseCount) {
+        this.userId = userId;
+        this.periodKey = periodKey;
+        this.categoryId = categoryId;
+        this.total = total;
+        this.expenseCount = expenseCount;
+    }
+
+    public static int periodKey(YearMonth month) {
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+
+    public static YearMonth toYearMonth(int periodKey) {
+        return YearMonth.of(periodKey / 100, periodKey % 100);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public int getPeriodKey() {
+        return periodKey;
+    }
+
+    public void setPeriodKey(int periodKey) {
+        this.periodKey = periodKey;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public long getExpenseCount() {
+        return expenseCount;
+    }
+
+    public void setExpenseCount(long expenseCount) {
+        this.expenseCount = expenseCount;
+    }
+}
@@ -0,0 +1,50 @@
+package com.fintrack.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * Marker left behind by a deleted expense so sync clients learn about the delete.
+ */
+@Entity
+@Table(name = "expense_tombstones",
+        indexes = @Index(name = "idx_tombstones_user_change_seq_id", columnList = "user_id, change_seq, expense_id"))
+public class ExpenseTombstone {
+
+    @Id
+    @Column(name = "expense_id")
+    private Long expenseId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+
+    public ExpenseTombstone() {
+    }
+
+    public Long getExpenseId() {
+        return expenseId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+}
@@ -0,0 +1,7 @@
+package com.fintrack.repository;
+
+public interface CategoryName {
+    Long getId();
+
+    String getName();
+}
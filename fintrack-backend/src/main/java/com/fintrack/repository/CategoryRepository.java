@@ -3,6 +3,8 @@ package com.fintrack.repository;
 import com.fintrack.model.Category;
 import com.fintrack.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
@@ -11,5 +13,11 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     List<Category> findByUser(User user);
     boolean existsByNameAndUser(String name, User user);
     boolean existsByNameAndUserIsNull(String name);
+
+    @Query("SELECT c.id AS id, c.name AS name FROM Category c WHERE c.user IS NULL")
+    List<CategoryName> findDefaultNames();
+
+    @Query("SELECT c.id AS id, c.name AS name FROM Category c WHERE c.user.id = :userId")
+    List<CategoryName> findNamesByUserId(@Param("userId") Long userId);
 }
 
@@ -0,0 +1,9 @@
+package com.fintrack.repository;
+
+import java.math.BigDecimal;
+
+public interface CategoryTotal {
+    Long getCategoryId();
+
+    BigDecimal getTotal();
+}
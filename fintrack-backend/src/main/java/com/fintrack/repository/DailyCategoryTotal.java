@@ -0,0 +1,12 @@
+package com.fintrack.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface DailyCategoryTotal {
+    LocalDate getExpenseDate();
+
+    Long getCategoryId();
+
+    BigDecimal getTotal();
+}
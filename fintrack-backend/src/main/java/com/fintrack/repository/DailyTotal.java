@@ -0,0 +1,10 @@
+package com.fintrack.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface DailyTotal {
+    LocalDate getExpenseDate();
+
+    BigDecimal getTotal();
+}
@@ -0,0 +1,34 @@
+package com.fintrack.repository;
+
+import com.fintrack.dto.ExpenseResponse;
+
+/**
+ * One entry of a user's change feed: the current row of an inserted or updated expense, or just
+ * the id of a deleted one.
+ */
+public final class ExpenseChange {
+    private final long changeSeq;
+    private final long expenseId;
+    private final ExpenseResponse expense;
+
+    public ExpenseChange(long changeSeq, long expenseId, ExpenseResponse expense) {
+        this.changeSeq = changeSeq;
+        this.expenseId = expenseId;
+        this.expense = expense;
+    }
+
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public long getExpenseId() {
+        return expenseId;
+    }
+
+    /**
+     * The expense as it is now, or {@code null} when it was deleted.
+     */
+    public ExpenseResponse getExpense() {
+        return expense;
+    }
+}
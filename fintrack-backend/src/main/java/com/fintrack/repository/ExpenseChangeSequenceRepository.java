@@ -0,0 +1,24 @@
+package com.fintrack.repository;
+
+import com.fintrack.model.ExpenseChangeSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface ExpenseChangeSequenceRepository extends JpaRepository<ExpenseChangeSequence, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO expense_change_sequences (user_id, last_seq) VALUES (:userId, :count) AS new "
+            + "ON DUPLICATE KEY UPDATE last_seq = last_seq + new.last_seq",
+            nativeQuery = true)
+    int advance(@Param("userId") Long userId, @Param("count") long count);
+
+    @Query("SELECT s.lastSeq FROM ExpenseChangeSequence s WHERE s.userId = :userId")
+    long lastSeq(@Param("userId") Long userId);
+
+    @Query("SELECT s.lastSeq FROM ExpenseChangeSequence s WHERE s.userId = :userId")
+    Optional<Long> currentSeq(@Param("userId") Long userId);
+}
@@ -0,0 +1,12 @@
+package com.fintrack.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface ExpenseFingerprint {
+    LocalDate getExpenseDate();
+
+    BigDecimal getAmount();
+
+    String getDescription();
+}
@@ -0,0 +1,51 @@
+package com.fintrack.repository;
+
+import com.fintrack.model.ExpenseMonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface ExpenseMonthlyRollupRepository extends JpaRepository<ExpenseMonthlyRollup, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO expense_monthly_rollup (user_id, period_key, category_id, total, expense_count) "
+            + "VALUES (:userId, :periodKey, :categoryId, :amount, :count) AS new "
+            + "ON DUPLICATE KEY UPDATE total = total + new.total, "
+            + "expense_count = expense_count + new.expense_count",
+            nativeQuery = true)
+    int applyDelta(@Param("userId") Long userId,
+                   @Param("periodKey") int periodKey,
+                   @Param("categoryId") Long categoryId,
+                   @Param("amount") BigDecimal amount,
+                   @Param("count") long count);
+
+    @Query("SELECT r.periodKey AS periodKey, SUM(r.total) AS total "
+            + "FROM ExpenseMonthlyRollup r "
+            + "WHERE r.userId = :userId AND r.periodKey BETWEEN :fromKey AND :toKey "
+            + "GROUP BY r.periodKey "
+            + "HAVING SUM(r.expenseCount) > 0 "
+            + "ORDER BY r.periodKey")
+    List<PeriodTotal> sumByPeriod(@Param("userId") Long userId,
+                                  @Param("fromKey") int fromKey,
+                                  @Param("toKey") int toKey);
+
+    @Query("SELECT r.categoryId AS categoryId, SUM(r.total) AS total "
+            + "FROM ExpenseMonthlyRollup r "
+            + "WHERE r.userId = :userId AND r.periodKey BETWEEN :fromKey AND :toKey "
+            + "GROUP BY r.categoryId "
+            + "HAVING SUM(r.expenseCount) > 0")
+    List<CategoryTotal> sumByCategory(@Param("userId") Long userId,
+                                      @Param("fromKey") int fromKey,
+                                      @Param("toKey") int toKey);
+
+    @Modifying
+    @Query("DELETE FROM ExpenseMonthlyRollup r WHERE r.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT DISTINCT r.userId FROM ExpenseMonthlyRollup r")
+    List<Long> findDistinctUserIds();
+}
@@ -1,18 +1,92 @@
 package com.fintrack.repository;
 
+import com.fintrack.dto.ExpenseResponse;
 import com.fintrack.model.Expense;
 import com.fintrack.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.time.LocalDate;
 
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, ExpenseRepositoryCustom {
+
+    /**
+     * Constructor expression for the {@link ExpenseResponse} read model; {@code e.user.id} reads
+     * the foreign key column without joining {@code users}.
+     */
+    String EXPENSE_RESPONSE = "new com.fintrack.dto.ExpenseResponse("
+            + "e.id, e.user.id, e.categoryId, e.amount, e.description, e.date, e.paymentMode, e.version)";
+
     List<Expense> findAllByUser(User user);
     Optional<Expense> findByIdAndUser(Long id, User user);
 
+    @Query("SELECT " + EXPENSE_RESPONSE + " FROM Expense e WHERE e.id = :id AND e.user.id = :userId")
+    Optional<ExpenseResponse> findResponseById(@Param("id") Long id, @Param("userId") Long userId);
+
     List<Expense> findAllByUserAndDateBetween(User user, LocalDate start, LocalDate end);
-}
 
+    @Query("SELECT e.date AS expenseDate, e.amount AS amount, e.description AS description "
+            + "FROM Expense e WHERE e.user.id = :userId AND e.date IN :dates")
+    List<ExpenseFingerprint> findFingerprints(@Param("userId") Long userId,
+                                              @Param("dates") Collection<LocalDate> dates);
+
+    @Query("SELECT YEAR(e.date) AS periodYear, MONTH(e.date) AS periodMonth, SUM(e.amount) AS total "
+            + "FROM Expense e WHERE e.user = :user AND e.date BETWEEN :start AND :end "
+            + "GROUP BY YEAR(e.date), MONTH(e.date) "
+            + "ORDER BY YEAR(e.date), MONTH(e.date)")
+    List<MonthlyTotal> sumByMonth(@Param("user") User user,
+                                  @Param("start") LocalDate start,
+                                  @Param("end") LocalDate end);
+
+    @Query("SELECT YEAR(e.date) AS periodYear, SUM(e.amount) AS total "
+            + "FROM Expense e WHERE e.user = :user AND e.date BETWEEN :start AND :end "
+            + "GROUP BY YEAR(e.date) "
+            + "ORDER BY YEAR(e.date)")
+    List<YearlyTotal> sumByYear(@Param("user") User user,
+                                @Param("start") LocalDate start,
+                                @Param("end") LocalDate end);
+
+    @Query("SELECT e.categoryId AS categoryId, SUM(e.amount) AS total "
+            + "FROM Expense e WHERE e.user = :user AND e.date BETWEEN :start AND :end "
+            + "GROUP BY e.categoryId "
+            + "ORDER BY SUM(e.amount) DESC")
+    List<CategoryTotal> sumByCategory(@Param("user") User user,
+                                      @Param("start") LocalDate start,
+                                      @Param("end") LocalDate end);
+
+    @Query("SELECT e.date AS expenseDate, SUM(e.amount) AS total "
+            + "FROM Expense e WHERE e.user = :user AND e.date BETWEEN :start AND :end "
+            + "GROUP BY e.date "
+            + "ORDER BY e.date")
+    List<DailyTotal> sumByDay(@Param("user") User user,
+                              @Param("start") LocalDate start,
+                              @Param("end") LocalDate end);
+
+    @Query("SELECT e.date AS expenseDate, SUM(e.amount) AS total "
+            + "FROM Expense e WHERE e.user = :user "
+            + "GROUP BY e.date "
+            + "ORDER BY e.date")
+    List<DailyTotal> sumByDayForUser(@Param("user") User user);
+
+    @Query("SELECT e.date AS expenseDate, e.categoryId AS categoryId, SUM(e.amount) AS total "
+            + "FROM Expense e WHERE e.user = :user AND e.date BETWEEN :start AND :end "
+            + "GROUP BY e.date, e.categoryId "
+            + "ORDER BY e.date")
+    List<DailyCategoryTotal> sumByDayAndCategory(@Param("user") User user,
+                                                 @Param("start") LocalDate start,
+                                                 @Param("end") LocalDate end);
+
+    @Query("SELECT YEAR(e.date) AS periodYear, MONTH(e.date) AS periodMonth, e.categoryId AS categoryId, "
+            + "SUM(e.amount) AS total, COUNT(e) AS expenseCount "
+            + "FROM Expense e WHERE e.user.id = :userId "
+            + "GROUP BY YEAR(e.date), MONTH(e.date), e.categoryId")
+    List<MonthlyCategoryTotal> sumByMonthAndCategory(@Param("userId") Long userId);
+
+    @Query("SELECT DISTINCT e.user.id FROM Expense e")
+    List<Long> findDistinctUserIds();
+}
@@ -0,0 +1,65 @@
+package com.fintrack.repository;
+
+import com.fintrack.dto.ExpenseFilter;
+import com.fintrack.dto.ExpenseResponse;
+import com.fintrack.model.User;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Read paths for listing and export. Rows are selected straight into {@link ExpenseResponse}
+ * (expense columns plus {@code user_id}), so no {@code User} is joined or loaded and nothing
+ * lands in the persistence context.
+ */
+public interface ExpenseRepositoryCustom {
+
+    /**
+     * Returns up to {@code limit} expense rows ordered by date and id, newest first, starting strictly
+     * after the ({@code afterDate}, {@code afterId}) position when one is given.
+     */
+    List<ExpenseResponse> findPage(User user, ExpenseFilter filter, LocalDate afterDate, Long afterId, int limit);
+
+    /**
+     * Streams the matching expense rows oldest first through a forward-only cursor. The caller must
+     * close the stream and run inside a transaction.
+     */
+    Stream<ExpenseResponse> streamFiltered(User user, ExpenseFilter filter);
+
+    /**
+     * Writes only the columns that differ between {@code current} and {@code next}, scoped to the
+     * owner and to the version in {@code current}, bumps the version and moves the row to
+     * {@code changeSeq} in the change feed. Returns the number of
+     * rows updated: 0 means the expense is gone or was changed in the meantime, so a rollup delta
+     * computed from {@code current} would be wrong. Callers skip the call when nothing differs.
+     */
+    int updateChanged(Long userId, ExpenseResponse current, ExpenseResponse next, long changeSeq);
+
+    /**
+     * Deletes the expense only while it is still at the version in {@code current}, leaving a
+     * tombstone at {@code changeSeq}.
+     */
+    int deleteUnchanged(Long userId, ExpenseResponse current, long changeSeq);
+
+    /**
+     * Totals of the matching expenses per month and category, skipping rows already in
+     * {@code excludeCategoryId} when it is given. The rows are read with a write lock, so a bulk
+     * statement that follows in the same transaction changes exactly what was summed.
+     */
+    List<MonthlyCategoryTotal> sumByMonthAndCategory(Long userId, ExpenseFilter filter, Long excludeCategoryId);
+
+    /**
+     * Deletes the matching expenses, leaving a tombstone for each at {@code changeSeq}.
+     */
+    int deleteFiltered(Long userId, ExpenseFilter filter, long changeSeq);
+
+    int recategorizeFiltered(Long userId, ExpenseFilter filter, Long categoryId, long changeSeq);
+
+    /**
+     * Returns up to {@code limit} changes ordered by change sequence and expense id, starting
+     * strictly after the ({@code afterSeq}, {@code afterId}) position. Live rows and tombstones
+     * are merged into one feed.
+     */
+    List<ExpenseChange> findChanges(Long userId, long afterSeq, long afterId, int limit);
+}
@@ -0,0 +1,324 @@
+package com.fintrack.repository;
+
+import com.fintrack.dto.ExpenseFilter;
+import com.fintrack.dto.ExpenseResponse;
+import com.fintrack.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class ExpenseRepositoryCustomImpl implements ExpenseRepositoryCustom {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+    private static final String SELECT_ROWS = "SELECT " + ExpenseRepository.EXPENSE_RESPONSE
+            + " FROM Expense e WHERE e.user = :user";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ExpenseResponse> findPage(User user, ExpenseFilter filter, LocalDate afterDate, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder(SELECT_ROWS);
+        Map<String, Object> params = new HashMap<>();
+        params.put("user", user);
+        appendFilter(jpql, params, filter);
+        if (afterDate != null && afterId != null) {
+            jpql.append(" AND (e.date < :afterDate OR (e.date = :afterDate AND e.id < :afterId))");
+            params.put("afterDate", afterDate);
+            params.put("afterId", afterId);
+        }
+        jpql.append(" ORDER BY e.date DESC, e.id DESC");
+        TypedQuery<ExpenseResponse> query = entityManager.createQuery(jpql.toString(), ExpenseResponse.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Stream<ExpenseResponse> streamFiltered(User user, ExpenseFilter filter) {
+        StringBuilder jpql = new StringBuilder(SELECT_ROWS);
+        Map<String, Object> params = new HashMap<>();
+        params.put("user", user);
+        appendFilter(jpql, params, filter);
+        jpql.append(" ORDER BY e.date, e.id");
+        TypedQuery<ExpenseResponse> query = entityManager.createQuery(jpql.toString(), ExpenseResponse.class);
+        params.forEach(query::setParameter);
+        return query.setHint("org.hibernate.fetchSize", STREAM_FETCH_SIZE).getResultStream();
+    }
+
+    @Override
+    public int updateChanged(Long userId, ExpenseResponse current, ExpenseResponse next, long changeSeq) {
+        StringBuilder assignments = new StringBuilder();
+        Map<String, Object> params = new HashMap<>();
+        if (!Objects.equals(current.getCategoryId(), next.getCategoryId())) {
+            assign(assignments, params, "categoryId", next.getCategoryId());
+        }
+        if (current.getAmount().compareTo(next.getAmount()) != 0) {
+            assign(assignments, params, "amount", next.getAmount());
+        }
+        if (!current.getDate().equals(next.getDate())) {
+            assign(assignments, params, "date", next.getDate());
+        }
+        if (!Objects.equals(current.getDescription(), next.getDescription())) {
+            assign(assignments, params, "description", next.getDescription());
+        }
+        if (!Objects.equals(current.getPaymentMode(), next.getPaymentMode())) {
+            assign(assignments, params, "paymentMode", next.getPaymentMode());
+        }
+        if (assignments.length() == 0) {
+            return 0;
+        }
+        StringBuilder jpql = new StringBuilder("UPDATE Expense e SET ").append(assignments)
+                .append(", e.version = e.version + 1, e.changeSeq = :changeSeq")
+                .append(" WHERE e.id = :id AND e.user.id = :userId AND e.version = :version");
+        params.put("changeSeq", changeSeq);
+        params.put("id", current.getId());
+        params.put("userId", userId);
+        params.put("version", current.getVersion());
+        Query query = entityManager.createQuery(jpql.toString());
+        params.forEach(query::setParameter);
+        return query.executeUpdate();
+    }
+
+    @Override
+    public int deleteUnchanged(Long userId, ExpenseResponse current, long changeSeq) {
+        int deleted = entityManager.createQuery("DELETE FROM Expense e "
+                        + "WHERE e.id = :id AND e.user.id = :userId AND e.version = :version")
+                .setParameter("id", current.getId())
+                .setParameter("userId", userId)
+                .setParameter("version", current.getVersion())
+                .executeUpdate();
+        if (deleted > 0) {
+            entityManager.createQuery("INSERT INTO ExpenseTombstone (expenseId, userId, changeSeq, deletedAt) "
+                            + "VALUES (:expenseId, :userId, :changeSeq, :deletedAt)")
+                    .setParameter("expenseId", current.getId())
+                    .setParameter("userId", userId)
+                    .setParameter("changeSeq", changeSeq)
+                    .setParameter("deletedAt", Instant.now())
+                    .executeUpdate();
+        }
+        return deleted;
+    }
+
+    @Override
+    public List<MonthlyCategoryTotal> sumByMonthAndCategory(Long userId, ExpenseFilter filter, Long excludeCategoryId) {
+        StringBuilder jpql = new StringBuilder("SELECT e.date, e.categoryId, e.amount "
+                + "FROM Expense e WHERE e.user.id = :userId");
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", userId);
+        appendFilter(jpql, params, filter);
+        if (excludeCategoryId != null) {
+            jpql.append(" AND e.categoryId <> :excludeCategoryId");
+            params.put("excludeCategoryId", excludeCategoryId);
+        }
+        // a locking read sees the latest committed rows and holds them until the bulk statement runs;
+        // summing in the database would read the transaction snapshot, which may already be stale
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setHint("org.hibernate.fetchSize", STREAM_FETCH_SIZE);
+        params.forEach(query::setParameter);
+        Map<String, MonthlyCategoryRow> totals = new LinkedHashMap<>();
+        try (Stream<Object[]> rows = query.getResultStream()) {
+            rows.forEach(row -> {
+                LocalDate date = (LocalDate) row[0];
+                Long categoryId = (Long) row[1];
+                BigDecimal amount = (BigDecimal) row[2];
+                totals.merge(date.getYear() + "|" + date.getMonthValue() + "|" + categoryId,
+                        new MonthlyCategoryRow(date.getYear(), date.getMonthValue(), categoryId, amount, 1L),
+                        MonthlyCategoryRow::plus);
+            });
+        }
+        return new ArrayList<>(totals.values());
+    }
+
+    @Override
+    public int deleteFiltered(Long userId, ExpenseFilter filter, long changeSeq) {
+        StringBuilder tombstones = new StringBuilder("INSERT INTO ExpenseTombstone (expenseId, userId, changeSeq, deletedAt) "
+                + "SELECT e.id, e.user.id, :changeSeq, :deletedAt FROM Expense e WHERE e.user.id = :userId");
+        Map<String, Object> tombstoneParams = new HashMap<>();
+        tombstoneParams.put("changeSeq", changeSeq);
+        tombstoneParams.put("deletedAt", Instant.now());
+        tombstoneParams.put("userId", userId);
+        appendFilter(tombstones, tombstoneParams, filter);
+        Query insert = entityManager.createQuery(tombstones.toString());
+        tombstoneParams.forEach(insert::setParameter);
+        insert.executeUpdate();
+
+        StringBuilder jpql = new StringBuilder("DELETE FROM Expense e WHERE e.user.id = :userId");
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", userId);
+        appendFilter(jpql, params, filter);
+        Query query = entityManager.createQuery(jpql.toString());
+        params.forEach(query::setParameter);
+        return query.executeUpdate();
+    }
+
+    @Override
+    public int recategorizeFiltered(Long userId, ExpenseFilter filter, Long categoryId, long changeSeq) {
+        StringBuilder jpql = new StringBuilder("UPDATE Expense e SET e.categoryId = :categoryId, "
+                + "e.version = e.version + 1, e.changeSeq = :changeSeq "
+                + "WHERE e.user.id = :userId AND e.categoryId <> :categoryId");
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", userId);
+        params.put("categoryId", categoryId);
+        params.put("changeSeq", changeSeq);
+        appendFilter(jpql, params, filter);
+        Query query = entityManager.createQuery(jpql.toString());
+        params.forEach(query::setParameter);
+        return query.executeUpdate();
+    }
+
+    @Override
+    public List<ExpenseChange> findChanges(Long userId, long afterSeq, long afterId, int limit) {
+        List<Object[]> upserts = entityManager.createQuery("SELECT e.changeSeq, " + ExpenseRepository.EXPENSE_RESPONSE
+                        + " FROM Expense e WHERE e.user.id = :userId"
+                        + " AND (e.changeSeq > :afterSeq OR (e.changeSeq = :afterSeq AND e.id > :afterId))"
+                        + " ORDER BY e.changeSeq, e.id", Object[].class)
+                .setParameter("userId", userId)
+                .setParameter("afterSeq", afterSeq)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .getResultList();
+        List<Object[]> deletes = entityManager.createQuery("SELECT t.changeSeq, t.expenseId FROM ExpenseTombstone t "
+                        + "WHERE t.userId = :userId"
+                        + " AND (t.changeSeq > :afterSeq OR (t.changeSeq = :afterSeq AND t.expenseId > :afterId))"
+                        + " ORDER BY t.changeSeq, t.expenseId", Object[].class)
+                .setParameter("userId", userId)
+                .setParameter("afterSeq", afterSeq)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .getResultList();
+
+        List<ExpenseChange> changes = new ArrayList<>(Math.min(limit, upserts.size() + deletes.size()));
+        int u = 0;
+        int d = 0;
+        while (changes.size() < limit && (u < upserts.size() || d < deletes.size())) {
+            ExpenseChange upsert = u < upserts.size() ? upsert(upserts.get(u)) : null;
+            ExpenseChange delete = d < deletes.size()
+                    ? new ExpenseChange((Long) deletes.get(d)[0], (Long) deletes.get(d)[1], null)
+                    : null;
+            if (delete == null || (upsert != null && precedes(upsert, delete))) {
+                changes.add(upsert);
+                u++;
+            } else {
+                changes.add(delete);
+                d++;
+            }
+        }
+        return changes;
+    }
+
+    private static ExpenseChange upsert(Object[] row) {
+        ExpenseResponse expense = (ExpenseResponse) row[1];
+        return new ExpenseChange((Long) row[0], expense.getId(), expense);
+    }
+
+    private static boolean precedes(ExpenseChange a, ExpenseChange b) {
+        if (a.getChangeSeq() != b.getChangeSeq()) {
+            return a.getChangeSeq() < b.getChangeSeq();
+        }
+        return a.getExpenseId() < b.getExpenseId();
+    }
+
+    private static void assign(StringBuilder assignments, Map<String, Object> params, String attribute, Object value) {
+        if (assignments.length() > 0) {
+            assignments.append(", ");
+        }
+        if (value == null) {
+            assignments.append("e.").append(attribute).append(" = NULL");
+            return;
+        }
+        assignments.append("e.").append(attribute).append(" = :").append(attribute);
+        params.put(attribute, value);
+    }
+
+    static void appendFilter(StringBuilder jpql, Map<String, Object> params, ExpenseFilter filter) {
+        if (filter == null) {
+            return;
+        }
+        if (filter.getFrom() != null) {
+            jpql.append(" AND e.date >= :fromDate");
+            params.put("fromDate", filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            jpql.append(" AND e.date <= :toDate");
+            params.put("toDate", filter.getTo());
+        }
+        if (filter.getCategoryIds() != null && !filter.getCategoryIds().isEmpty()) {
+            jpql.append(" AND e.categoryId IN :categoryIds");
+            params.put("categoryIds", filter.getCategoryIds());
+        }
+        if (filter.getPaymentMode() != null && !filter.getPaymentMode().isBlank()) {
+            jpql.append(" AND e.paymentMode = :paymentMode");
+            params.put("paymentMode", filter.getPaymentMode());
+        }
+        if (filter.getMinAmount() != null) {
+            jpql.append(" AND e.amount >= :minAmount");
+            params.put("minAmount", filter.getMinAmount());
+        }
+        if (filter.getMaxAmount() != null) {
+            jpql.append(" AND e.amount <= :maxAmount");
+            params.put("maxAmount", filter.getMaxAmount());
+        }
+    }
+
+    private static final class MonthlyCategoryRow implements MonthlyCategoryTotal {
+        private final Integer periodYear;
+        private final Integer periodMonth;
+        private final Long categoryId;
+        private final BigDecimal total;
+        private final Long expenseCount;
+
+        private MonthlyCategoryRow(Integer periodYear, Integer periodMonth, Long categoryId,
+                                   BigDecimal total, Long expenseCount) {
+            this.periodYear = periodYear;
+            this.periodMonth = periodMonth;
+            this.categoryId = categoryId;
+            this.total = total;
+            this.expenseCount = expenseCount;
+        }
+
+        private MonthlyCategoryRow plus(MonthlyCategoryRow other) {
+            return new MonthlyCategoryRow(periodYear, periodMonth, categoryId,
+                    total.add(other.total), expenseCount + other.expenseCount);
+        }
+
+        @Override
+        public Integer getPeriodYear() {
+            return periodYear;
+        }
+
+        @Override
+        public Integer getPeriodMonth() {
+            return periodMonth;
+        }
+
+        @Override
+        public Long getCategoryId() {
+            return categoryId;
+        }
+
+        @Override
+        public BigDecimal getTotal() {
+            return total;
+        }
+
+        @Override
+        public Long getExpenseCount() {
+            return expenseCount;
+        }
+    }
+}
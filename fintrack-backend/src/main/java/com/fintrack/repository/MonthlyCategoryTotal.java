@@ -0,0 +1,15 @@
+package com.fintrack.repository;
+
+import java.math.BigDecimal;
+
+public interface MonthlyCategoryTotal {
+    Integer getPeriodYear();
+
+    Integer getPeriodMonth();
+
+    Long getCategoryId();
+
+    BigDecimal getTotal();
+
+    Long getExpenseCount();
+}
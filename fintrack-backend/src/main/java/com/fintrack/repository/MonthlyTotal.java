@@ -0,0 +1,11 @@
+package com.fintrack.repository;
+
+import java.math.BigDecimal;
+
+public interface MonthlyTotal {
+    Integer getPeriodYear();
+
+    Integer getPeriodMonth();
+
+    BigDecimal getTotal();
+}
@@ -0,0 +1,9 @@
+package com.fintrack.repository;
+
+import java.math.BigDecimal;
+
+public interface PeriodTotal {
+    Integer getPeriodKey();
+
+    BigDecimal getTotal();
+}
@@ -0,0 +1,9 @@
+package com.fintrack.repository;
+
+import java.math.BigDecimal;
+
+public interface YearlyTotal {
+    Integer getPeriodYear();
+
+    BigDecimal getTotal();
+}
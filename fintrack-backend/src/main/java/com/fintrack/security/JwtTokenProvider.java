@@ -1,6 +1,10 @@
 package com.fintrack.security;
 
+import com.fintrack.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -8,52 +12,143 @@ import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Component
 public class JwtTokenProvider {
 
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_ROLE = "role";
+
     @Value("${app.jwt.secret:ChangeThisSecretKey}")
     private String jwtSecret;
 
     @Value("${app.jwt.expiration-ms:3600000}")
     private long jwtExpirationMs;
 
+    @Value("${app.jwt.verified-cache-size:10000}")
+    private int verifiedCacheSize;
+
     private Key key;
 
+    private JwtParser parser;
+
+    private Map<String, VerifiedToken> verifiedTokens;
+
     @PostConstruct
     public void init() {
         this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        int maxEntries = verifiedCacheSize;
+        this.verifiedTokens = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > maxEntries;
+            }
+        };
     }
 
-    public String generateToken(String subject) {
+    public String generateToken(User user) {
         Date now = new Date();
         Date expiry = new Date(now.getTime() + jwtExpirationMs);
         return Jwts.builder()
-                .setSubject(subject)
+                .setSubject(user.getEmail())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLE, user.getRole())
                 .setIssuedAt(now)
                 .setExpiration(expiry)
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+    /**
+     * Verifies the token signature and expiry once and returns its claims as a principal. Tokens
+     * verified recently are answered from a bounded cache of token hashes until their {@code exp}.
+     */
+    public TokenVerification parse(String token) {
+        if (token == null || token.isEmpty()) {
+            return TokenVerification.invalid();
+        }
+        String tokenHash = hash(token);
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = lookup(tokenHash);
+        if (cached != null) {
+            if (cached.expiresAt > now) {
+                return TokenVerification.valid(cached.principal.getEmail(), cached.principal);
+            }
+            evict(tokenHash);
+        }
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (ExpiredJwtException ex) {
+            return TokenVerification.expired();
+        } catch (JwtException | IllegalArgumentException ex) {
+            return TokenVerification.invalid();
+        }
+        AuthenticatedUser principal = toPrincipal(claims);
+        if (principal != null && claims.getExpiration() != null) {
+            remember(tokenHash, new VerifiedToken(principal, claims.getExpiration().getTime()));
+        }
+        return TokenVerification.valid(claims.getSubject(), principal);
+    }
+
+    private AuthenticatedUser toPrincipal(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+        return new AuthenticatedUser(userId.longValue(), claims.getSubject(), role);
+    }
+
+    private VerifiedToken lookup(String tokenHash) {
+        if (verifiedCacheSize <= 0) {
+            return null;
+        }
+        synchronized (verifiedTokens) {
+            return verifiedTokens.get(tokenHash);
+        }
+    }
+
+    private void remember(String tokenHash, VerifiedToken verified) {
+        if (verifiedCacheSize <= 0) {
+            return;
+        }
+        synchronized (verifiedTokens) {
+            verifiedTokens.put(tokenHash, verified);
+        }
+    }
+
+    private void evict(String tokenHash) {
+        synchronized (verifiedTokens) {
+            verifiedTokens.remove(tokenHash);
+        }
     }
 
-    public boolean validateToken(String token) {
+    private static String hash(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
-        } catch (Exception ex) {
-            return false;
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
         }
     }
-}
 
+    private static final class VerifiedToken {
+        private final AuthenticatedUser principal;
+        private final long expiresAt;
+
+        private VerifiedToken(AuthenticatedUser principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
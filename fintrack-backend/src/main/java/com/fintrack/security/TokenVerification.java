@@ -0,0 +1,57 @@
+package com.fintrack.security;
+
+/**
+ * Outcome of verifying a JWT once: the failure kind, or the subject and principal of a valid token.
+ */
+public class TokenVerification {
+
+    public enum Status {
+        VALID,
+        EXPIRED,
+        INVALID
+    }
+
+    private static final TokenVerification EXPIRED = new TokenVerification(Status.EXPIRED, null, null);
+    private static final TokenVerification INVALID = new TokenVerification(Status.INVALID, null, null);
+
+    private final Status status;
+    private final String subject;
+    private final AuthenticatedUser principal;
+
+    private TokenVerification(Status status, String subject, AuthenticatedUser principal) {
+        this.status = status;
+        this.subject = subject;
+        this.principal = principal;
+    }
+
+    public static TokenVerification valid(String subject, AuthenticatedUser principal) {
+        return new TokenVerification(Status.VALID, subject, principal);
+    }
+
+    public static TokenVerification expired() {
+        return EXPIRED;
+    }
+
+    public static TokenVerification invalid() {
+        return INVALID;
+    }
+
+    public boolean isValid() {
+        return status == Status.VALID;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    /**
+     * Principal from the token claims; null for tokens issued before the id and role claims existed.
+     */
+    public AuthenticatedUser getPrincipal() {
+        return principal;
+    }
+}
@@ -0,0 +1,99 @@
+package com.fintrack.service;
+
+import com.fintrack.dto.AnalyticsCacheStatsResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of analytics results keyed by user and endpoint. Entries expire after a TTL
+ * and are discarded as soon as the user's {@link DataVersionTracker} version moves on.
+ */
+@Component
+public class AnalyticsCache {
+
+    private final DataVersionTracker dataVersions;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Map<String, CachedResult> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public AnalyticsCache(DataVersionTracker dataVersions,
+                          @Value("${app.analytics.cache.max-entries:10000}") int maxEntries,
+                          @Value("${app.analytics.cache.ttl-ms:300000}") long ttlMillis) {
+        this.dataVersions = dataVersions;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                if (size() > AnalyticsCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Long userId, String endpoint, Supplier<T> loader) {
+        if (maxEntries <= 0) {
+            return loader.get();
+        }
+        String key = userId + ":" + endpoint;
+        long version = dataVersions.current(userId);
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            CachedResult entry = entries.get(key);
+            if (entry != null) {
+                if (entry.version == version && entry.expiresAt > now) {
+                    hits.incrementAndGet();
+                    return (T) entry.value;
+                }
+                entries.remove(key);
+                invalidations.incrementAndGet();
+            }
+        }
+        misses.incrementAndGet();
+        T value = loader.get();
+        synchronized (entries) {
+            entries.put(key, new CachedResult(value, version, now + ttlMillis));
+        }
+        return value;
+    }
+
+    public AnalyticsCacheStatsResponse stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new AnalyticsCacheStatsResponse(
+                size,
+                maxEntries,
+                hits.get(),
+                misses.get(),
+                evictions.get(),
+                invalidations.get());
+    }
+
+    private static final class CachedResult {
+        private final Object value;
+        private final long version;
+        private final long expiresAt;
+
+        private CachedResult(Object value, long version, long expiresAt) {
+            this.value = value;
+            this.version = version;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,17 +1,31 @@
 package com.fintrack.service;
 
+import com.fintrack.dto.AnalyticsCacheStatsResponse;
 import com.fintrack.dto.CategorySummaryResponse;
+import com.fintrack.dto.DashboardResponse;
 import com.fintrack.dto.MonthlySummaryResponse;
 import com.fintrack.dto.PredictedExpenseResponse;
+import com.fintrack.dto.SeriesPointResponse;
 import com.fintrack.dto.TrendPointResponse;
 import com.fintrack.dto.YearlySummaryResponse;
+import com.fintrack.exceptions.InvalidRequestException;
 import com.fintrack.exceptions.ResourceNotFoundException;
-import com.fintrack.model.Category;
-import com.fintrack.model.Expense;
+import com.fintrack.model.ExpenseMonthlyRollup;
 import com.fintrack.model.User;
-import com.fintrack.repository.CategoryRepository;
+import com.fintrack.repository.CategoryTotal;
+import com.fintrack.repository.DailyCategoryTotal;
+import com.fintrack.repository.ExpenseMonthlyRollupRepository;
 import com.fintrack.repository.ExpenseRepository;
+import com.fintrack.repository.PeriodTotal;
 import com.fintrack.repository.UserRepository;
+import com.fintrack.security.AuthenticatedUser;
+import com.fintrack.service.aggregation.CategoryCents;
+import com.fintrack.service.aggregation.Cents;
+import com.fintrack.service.aggregation.DailyCents;
+import com.fintrack.service.aggregation.Granularity;
+import com.fintrack.service.aggregation.MonthlyCents;
+import com.fintrack.service.aggregation.PrefixSumSeries;
+import com.fintrack.service.aggregation.YearlyCents;
 import com.fintrack.utils.SecurityUtils;
 import org.springframework.stereotype.Service;
 
@@ -20,109 +34,217 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.Year;
 import java.time.YearMonth;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class AnalyticsService {
 
+    private static final int MAX_SERIES_POINTS = 5000;
+
     private final ExpenseRepository expenseRepository;
-    private final CategoryRepository categoryRepository;
+    private final CategoryDictionary categoryDictionary;
     private final UserRepository userRepository;
+    private final ExpenseMonthlyRollupRepository rollupRepository;
+    private final ExpenseRollupService rollupService;
+    private final AnalyticsCache analyticsCache;
+    private final TimeSeriesIndex timeSeriesIndex;
+    private final DataVersionTracker dataVersions;
 
     public AnalyticsService(ExpenseRepository expenseRepository,
-                            CategoryRepository categoryRepository,
-                            UserRepository userRepository) {
+                            CategoryDictionary categoryDictionary,
+                            UserRepository userRepository,
+                            ExpenseMonthlyRollupRepository rollupRepository,
+                            ExpenseRollupService rollupService,
+                            AnalyticsCache analyticsCache,
+                            TimeSeriesIndex timeSeriesIndex,
+                            DataVersionTracker dataVersions) {
         this.expenseRepository = expenseRepository;
-        this.categoryRepository = categoryRepository;
+        this.categoryDictionary = categoryDictionary;
         this.userRepository = userRepository;
+        this.rollupRepository = rollupRepository;
+        this.rollupService = rollupService;
+        this.analyticsCache = analyticsCache;
+        this.timeSeriesIndex = timeSeriesIndex;
+        this.dataVersions = dataVersions;
+    }
+
+    /**
+     * Validator for the current user's analytics. It moves with their data and with the date,
+     * since the summary windows are anchored on today.
+     */
+    public String versionTag() {
+        return dataVersions.versionTag(getCurrentUser().getId()) + "." + LocalDate.now();
     }
 
     public List<MonthlySummaryResponse> getMonthlySummary() {
         User user = getCurrentUser();
-        LocalDate start = LocalDate.now().minusMonths(12).withDayOfMonth(1);
-        LocalDate end = LocalDate.now();
-        List<Expense> expenses = expenseRepository.findAllByUserAndDateBetween(user, start, end);
-        Map<YearMonth, BigDecimal> grouped = expenses.stream()
-                .collect(Collectors.groupingBy(
-                        e -> YearMonth.from(e.getDate()),
-                        Collectors.mapping(Expense::getAmount,
-                                Collectors.reducing(BigDecimal.ZERO, BigDecimal::add))));
-        return grouped.entrySet().stream()
-                .map(entry -> new MonthlySummaryResponse(
-                        entry.getKey().getYear(),
-                        entry.getKey().getMonthValue(),
-                        entry.getValue()))
-                .sorted(Comparator.comparing(MonthlySummaryResponse::getYear)
-                        .thenComparing(MonthlySummaryResponse::getMonth))
-                .collect(Collectors.toList());
+        return analyticsCache.get(user.getId(), "monthly-summary", () -> monthlySummary(user));
     }
 
     public List<YearlySummaryResponse> getYearlySummary() {
         User user = getCurrentUser();
-        LocalDate start = LocalDate.now().minusYears(5).withDayOfYear(1);
-        LocalDate end = LocalDate.now();
-        List<Expense> expenses = expenseRepository.findAllByUserAndDateBetween(user, start, end);
-        Map<Year, BigDecimal> grouped = expenses.stream()
-                .collect(Collectors.groupingBy(
-                        expense -> Year.of(expense.getDate().getYear()),
-                        Collectors.mapping(Expense::getAmount,
-                                Collectors.reducing(BigDecimal.ZERO, BigDecimal::add))));
-        return grouped.entrySet().stream()
-                .map(entry -> new YearlySummaryResponse(
-                        entry.getKey().getValue(),
-                        entry.getValue()))
-                .sorted(Comparator.comparingInt(YearlySummaryResponse::getYear))
-                .collect(Collectors.toList());
+        return analyticsCache.get(user.getId(), "yearly-summary", () -> yearlySummary(user));
     }
 
     public List<CategorySummaryResponse> getCategorySummary() {
         User user = getCurrentUser();
+        return analyticsCache.get(user.getId(), "by-category", () -> categorySummary(user));
+    }
+
+    public List<TrendPointResponse> getTrends() {
+        User user = getCurrentUser();
+        return analyticsCache.get(user.getId(), "trends", () -> trends(user));
+    }
+
+    public PredictedExpenseResponse getPredictedExpense() {
+        User user = getCurrentUser();
+        return analyticsCache.get(user.getId(), "predicted-expense",
+                () -> predictedExpense(monthlySummary(user)));
+    }
+
+    public DashboardResponse getDashboard() {
+        User user = getCurrentUser();
+        return analyticsCache.get(user.getId(), "dashboard", () -> dashboard(user));
+    }
+
+    public List<SeriesPointResponse> getSeries(LocalDate from, LocalDate to, String granularity) {
+        Granularity bucket = Granularity.fromValue(granularity);
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from == null ? end.minusMonths(12).withDayOfMonth(1) : from;
+        if (start.isAfter(end)) {
+            throw new InvalidRequestException("'from' must not be after 'to'");
+        }
+        PrefixSumSeries series = timeSeriesIndex.get(getCurrentUser());
+        List<SeriesPointResponse> points = new ArrayList<>();
+        LocalDate bucketStart = bucket.bucketStart(start);
+        while (!bucketStart.isAfter(end)) {
+            if (points.size() == MAX_SERIES_POINTS) {
+                throw new InvalidRequestException("Range is too large for the requested granularity");
+            }
+            LocalDate next = bucket.nextBucketStart(bucketStart);
+            LocalDate periodStart = bucketStart.isBefore(start) ? start : bucketStart;
+            LocalDate periodEnd = next.minusDays(1).isAfter(end) ? end : next.minusDays(1);
+            points.add(new SeriesPointResponse(
+                    periodStart,
+                    periodEnd,
+                    Cents.toAmount(series.sum(periodStart, periodEnd))));
+            bucketStart = next;
+        }
+        return points;
+    }
+
+    public AnalyticsCacheStatsResponse getCacheStats() {
+        return analyticsCache.stats();
+    }
+
+    public int rebuildRollups() {
+        User user = getCurrentUser();
+        return rollupService.rebuild(user.getId());
+    }
+
+    private List<MonthlySummaryResponse> monthlySummary(User user) {
+        YearMonth start = YearMonth.now().minusMonths(12);
+        YearMonth end = YearMonth.now();
+        return rollupRepository.sumByPeriod(user.getId(), periodKey(start), periodKey(end)).stream()
+                .map(row -> {
+                    YearMonth month = ExpenseMonthlyRollup.toYearMonth(row.getPeriodKey());
+                    return new MonthlySummaryResponse(month.getYear(), month.getMonthValue(), row.getTotal());
+                })
+                .collect(Collectors.toList());
+    }
+
+    private List<YearlySummaryResponse> yearlySummary(User user) {
+        YearMonth start = YearMonth.of(Year.now().getValue() - 5, 1);
+        YearMonth end = YearMonth.now();
+        YearlyCents yearly = new YearlyCents(start.getYear(), end.getYear());
+        for (PeriodTotal row : rollupRepository.sumByPeriod(user.getId(), periodKey(start), periodKey(end))) {
+            yearly.add(row.getPeriodKey() / 100, Cents.of(row.getTotal()));
+        }
+        return yearly.toYearlySummaries();
+    }
+
+    private List<CategorySummaryResponse> categorySummary(User user) {
         LocalDate start = LocalDate.now().minusMonths(6);
         LocalDate end = LocalDate.now();
-        List<Expense> expenses = expenseRepository.findAllByUserAndDateBetween(user, start, end);
-        Map<Long, BigDecimal> grouped = expenses.stream()
-                .collect(Collectors.groupingBy(
-                        Expense::getCategoryId,
-                        Collectors.mapping(Expense::getAmount,
-                                Collectors.reducing(BigDecimal.ZERO, BigDecimal::add))));
-        return grouped.entrySet().stream()
-                .map(entry -> new CategorySummaryResponse(
-                        entry.getKey(),
-                        resolveCategoryName(entry.getKey()),
-                        entry.getValue()))
-                .sorted(Comparator.comparing(CategorySummaryResponse::getTotal).reversed())
-                .collect(Collectors.toList());
+        // Whole months come from the rollup; a window starting mid-month reads its head month from expenses.
+        YearMonth firstFullMonth = start.getDayOfMonth() == 1
+                ? YearMonth.from(start)
+                : YearMonth.from(start).plusMonths(1);
+        CategoryCents byCategory = new CategoryCents();
+        if (!firstFullMonth.equals(YearMonth.from(start))) {
+            LocalDate headEnd = YearMonth.from(start).atEndOfMonth();
+            for (CategoryTotal row : expenseRepository.sumByCategory(user, start, headEnd)) {
+                byCategory.add(row.getCategoryId(), Cents.of(row.getTotal()));
+            }
+        }
+        for (CategoryTotal row : rollupRepository.sumByCategory(
+                user.getId(), periodKey(firstFullMonth), periodKey(YearMonth.from(end)))) {
+            byCategory.add(row.getCategoryId(), Cents.of(row.getTotal()));
+        }
+        return toCategorySummaries(user, byCategory);
     }
 
-    private String resolveCategoryName(Long categoryId) {
-        return categoryRepository.findById(categoryId)
-                .map(Category::getName)
-                .orElse("Unknown");
+    private List<CategorySummaryResponse> toCategorySummaries(User user, CategoryCents byCategory) {
+        Integer[] order = new Integer[byCategory.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(byCategory.cents(b), byCategory.cents(a)));
+        CategoryDictionary.CategoryNames names = categoryDictionary.forUser(user.getId());
+        List<CategorySummaryResponse> summaries = new ArrayList<>(order.length);
+        for (int index : order) {
+            long categoryId = byCategory.categoryId(index);
+            summaries.add(new CategorySummaryResponse(
+                    categoryId,
+                    names.nameOf(categoryId),
+                    Cents.toAmount(byCategory.cents(index))));
+        }
+        return summaries;
     }
 
-    public List<TrendPointResponse> getTrends() {
-        User user = getCurrentUser();
+    private List<TrendPointResponse> trends(User user) {
         LocalDate end = LocalDate.now();
         LocalDate start = end.minusMonths(6);
-        List<Expense> expenses = expenseRepository.findAllByUserAndDateBetween(user, start, end);
-        Map<LocalDate, BigDecimal> grouped = expenses.stream()
-                .collect(Collectors.groupingBy(
-                        Expense::getDate,
-                        Collectors.mapping(Expense::getAmount,
-                                Collectors.reducing(BigDecimal.ZERO, BigDecimal::add))));
-        return grouped.entrySet().stream()
-                .map(entry -> new TrendPointResponse(
-                        entry.getKey(),
-                        entry.getValue()))
-                .sorted(Comparator.comparing(TrendPointResponse::getDate))
+        return expenseRepository.sumByDay(user, start, end).stream()
+                .map(row -> new TrendPointResponse(
+                        row.getExpenseDate(),
+                        row.getTotal()))
                 .collect(Collectors.toList());
     }
 
-    public PredictedExpenseResponse getPredictedExpense() {
-        List<MonthlySummaryResponse> monthlySummaries = getMonthlySummary();
+    private DashboardResponse dashboard(User user) {
+        LocalDate today = LocalDate.now();
+        LocalDate yearlyStart = today.minusYears(5).withDayOfYear(1);
+        LocalDate monthlyStart = today.minusMonths(12).withDayOfMonth(1);
+        LocalDate categoryStart = today.minusMonths(6);
+        LocalDate trendStart = today.minusMonths(6);
+        YearlyCents yearly = new YearlyCents(yearlyStart.getYear(), today.getYear());
+        MonthlyCents monthly = new MonthlyCents(YearMonth.from(monthlyStart), YearMonth.from(today));
+        CategoryCents byCategory = new CategoryCents();
+        DailyCents daily = new DailyCents(trendStart, today);
+        for (DailyCategoryTotal row : expenseRepository.sumByDayAndCategory(user, yearlyStart, today)) {
+            LocalDate date = row.getExpenseDate();
+            long cents = Cents.of(row.getTotal());
+            yearly.add(date.getYear(), cents);
+            monthly.add(date, cents);
+            daily.add(date, cents);
+            if (!date.isBefore(categoryStart)) {
+                byCategory.add(row.getCategoryId(), cents);
+            }
+        }
+        List<MonthlySummaryResponse> monthlySummary = monthly.toMonthlySummaries();
+        return new DashboardResponse(
+                monthlySummary,
+                yearly.toYearlySummaries(),
+                toCategorySummaries(user, byCategory),
+                daily.toTrendPoints(),
+                predictedExpense(monthlySummary));
+    }
+
+    private PredictedExpenseResponse predictedExpense(List<MonthlySummaryResponse> monthlySummaries) {
         int n = monthlySummaries.size();
         if (n < 2) {
             return new PredictedExpenseResponse(BigDecimal.ZERO, n);
@@ -151,13 +273,16 @@ public class AnalyticsService {
         return new PredictedExpenseResponse(predictedAmount, n);
     }
 
+    private static int periodKey(YearMonth month) {
+        return ExpenseMonthlyRollup.periodKey(month);
+    }
+
     private User getCurrentUser() {
-        String email = SecurityUtils.getCurrentUserEmail();
-        if (email == null) {
+        AuthenticatedUser principal = SecurityUtils.getCurrentUser();
+        if (principal == null) {
             throw new ResourceNotFoundException("Authenticated user not found");
         }
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        return userRepository.getReferenceById(principal.getId());
     }
 }
 
@@ -41,7 +41,7 @@ public class AuthService {
         user.setPassword(passwordEncoder.encode(request.getPassword()));
         user.setRole("USER");
         userRepository.save(user);
-        String token = tokenProvider.generateToken(user.getEmail());
+        String token = tokenProvider.generateToken(user);
         return new AuthResponse(token, user.getName(), user.getEmail());
     }
 
@@ -54,7 +54,7 @@ public class AuthService {
         }
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new AuthenticationFailedException("User not found"));
-        String token = tokenProvider.generateToken(user.getEmail());
+        String token = tokenProvider.generateToken(user);
         return new AuthResponse(token, user.getName(), user.getEmail());
     }
 }
@@ -0,0 +1,137 @@
+package com.fintrack.service;
+
+import com.fintrack.model.Category;
+import com.fintrack.repository.CategoryName;
+import com.fintrack.repository.CategoryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Shared id-to-name lookup for categories. Default categories are loaded once; each user's own
+ * categories are loaded in one query and kept until {@link CategoryService} changes them.
+ */
+@Component
+public class CategoryDictionary {
+
+    private static final String UNKNOWN = "Unknown";
+
+    private final CategoryRepository categoryRepository;
+    private final Map<Long, Map<Long, String>> userCategories;
+    private volatile Map<Long, String> defaults;
+
+    public CategoryDictionary(CategoryRepository categoryRepository,
+                              @Value("${app.categories.dictionary.max-users:1000}") int maxUsers) {
+        this.categoryRepository = categoryRepository;
+        this.userCategories = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Map<Long, String>> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    /**
+     * Returns a lookup over the default categories plus the user's own, for the duration of one request.
+     */
+    public CategoryNames forUser(Long userId) {
+        return new CategoryNames(defaults(), userNames(userId));
+    }
+
+    public void invalidateUser(Long userId) {
+        synchronized (userCategories) {
+            userCategories.remove(userId);
+        }
+    }
+
+    public void invalidateDefaults() {
+        defaults = null;
+    }
+
+    private Map<Long, String> defaults() {
+        Map<Long, String> loaded = defaults;
+        if (loaded == null) {
+            loaded = toMap(categoryRepository.findDefaultNames());
+            defaults = loaded;
+        }
+        return loaded;
+    }
+
+    private Map<Long, String> userNames(Long userId) {
+        synchronized (userCategories) {
+            Map<Long, String> cached = userCategories.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Map<Long, String> loaded = toMap(categoryRepository.findNamesByUserId(userId));
+        synchronized (userCategories) {
+            userCategories.put(userId, loaded);
+        }
+        return loaded;
+    }
+
+    private static Map<Long, String> toMap(List<CategoryName> rows) {
+        Map<Long, String> names = new HashMap<>();
+        for (CategoryName row : rows) {
+            names.put(row.getId(), row.getName());
+        }
+        return Collections.unmodifiableMap(names);
+    }
+
+    public final class CategoryNames {
+        private final Map<Long, String> defaults;
+        private final Map<Long, String> own;
+        private final Map<Long, String> others = new HashMap<>();
+        private Map<String, Long> ids;
+
+        private CategoryNames(Map<Long, String> defaults, Map<Long, String> own) {
+            this.defaults = defaults;
+            this.own = own;
+        }
+
+        public String nameOf(Long categoryId) {
+            if (categoryId == null) {
+                return UNKNOWN;
+            }
+            String name = defaults.get(categoryId);
+            if (name == null) {
+                name = own.get(categoryId);
+            }
+            if (name == null) {
+                // ids outside the user's visible set are rare; look each one up at most once per request
+                name = others.computeIfAbsent(categoryId, id -> categoryRepository.findById(id)
+                        .map(Category::getName)
+                        .orElse(UNKNOWN));
+            }
+            return name;
+        }
+
+        /**
+         * Resolves a category name case-insensitively; the user's own categories win over defaults
+         * with the same name. Returns {@code null} when there is no match.
+         */
+        public Long idOf(String name) {
+            if (name == null) {
+                return null;
+            }
+            if (ids == null) {
+                Map<String, Long> byName = new HashMap<>();
+                defaults.forEach((id, categoryName) -> byName.put(normalize(categoryName), id));
+                own.forEach((id, categoryName) -> byName.put(normalize(categoryName), id));
+                ids = byName;
+            }
+            return ids.get(normalize(name));
+        }
+
+        private String normalize(String name) {
+            return name.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -9,7 +9,9 @@ import com.fintrack.model.Category;
 import com.fintrack.model.User;
 import com.fintrack.repository.CategoryRepository;
 import com.fintrack.repository.UserRepository;
+import com.fintrack.security.AuthenticatedUser;
 import com.fintrack.utils.SecurityUtils;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -22,11 +24,20 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
+    private final DataVersionTracker dataVersions;
+    private final CategoryDictionary categoryDictionary;
+    private final ApplicationEventPublisher eventPublisher;
 
     public CategoryService(CategoryRepository categoryRepository,
-                           UserRepository userRepository) {
+                           UserRepository userRepository,
+                           DataVersionTracker dataVersions,
+                           CategoryDictionary categoryDictionary,
+                           ApplicationEventPublisher eventPublisher) {
         this.categoryRepository = categoryRepository;
         this.userRepository = userRepository;
+        this.dataVersions = dataVersions;
+        this.categoryDictionary = categoryDictionary;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<CategoryResponse> getCategoriesForCurrentUser() {
@@ -52,7 +63,10 @@ public class CategoryService {
                 request.getDescription(),
                 user
         );
-        return toResponse(categoryRepository.save(category));
+        Category saved = categoryRepository.save(category);
+        categoryDictionary.invalidateUser(user.getId());
+        changed(user.getId());
+        return toResponse(saved);
     }
 
     public void deleteCategory(Long id) {
@@ -66,15 +80,21 @@ public class CategoryService {
             throw new OperationNotAllowedException("Cannot delete another user's category");
         }
         categoryRepository.delete(category);
+        categoryDictionary.invalidateUser(user.getId());
+        changed(user.getId());
+    }
+
+    private void changed(Long userId) {
+        dataVersions.markChanged(userId);
+        eventPublisher.publishEvent(new DataChangeEvent(userId, DataChangeEvent.Source.CATEGORIES, List.of()));
     }
 
     private User getCurrentUser() {
-        String email = SecurityUtils.getCurrentUserEmail();
-        if (email == null) {
+        AuthenticatedUser principal = SecurityUtils.getCurrentUser();
+        if (principal == null) {
             throw new ResourceNotFoundException("Authenticated user not found");
         }
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        return userRepository.getReferenceById(principal.getId());
     }
 
     private CategoryResponse toResponse(Category category) {
@@ -0,0 +1,270 @@
+package com.fintrack.service;
+
+import com.fintrack.dto.ChangeNotification;
+import com.fintrack.exceptions.ResourceNotFoundException;
+import com.fintrack.exceptions.TooManyRequestsException;
+import com.fintrack.security.AuthenticatedUser;
+import com.fintrack.utils.SecurityUtils;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-user registry of server-sent event connections for the change feed. A subscriber is just its
+ * emitter and a small bounded queue: a drain task is submitted to a small sender pool when
+ * something is enqueued and returns once the queue is empty, so idle connections hold no thread.
+ * Sends are blocking servlet writes, so a client that stops reading can hold a sender; a watchdog
+ * drops any subscriber whose send has run past the send timeout and lends the pool a replacement
+ * thread until that send returns, so stalled clients never starve the others. A subscriber that
+ * falls a full queue behind loses its pending notifications and gets a single {@code resync} event.
+ */
+@Service
+public class ChangeFeedService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    private static final String CHANGE_EVENT = "change";
+    private static final String RESYNC_EVENT = "resync";
+
+    private final long timeoutMillis;
+    private final int queueCapacity;
+    private final int maxPerUser;
+    private final long sendTimeoutNanos;
+    private final ConcurrentMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor senders;
+
+    public ChangeFeedService(@Value("${app.changes.sse.timeout-ms:1800000}") long timeoutMillis,
+                             @Value("${app.changes.sse.queue-capacity:16}") int queueCapacity,
+                             @Value("${app.changes.sse.max-per-user:8}") int maxPerUser,
+                             @Value("${app.changes.sse.sender-threads:4}") int senderThreads,
+                             @Value("${app.changes.sse.send-timeout-ms:5000}") long sendTimeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+        this.queueCapacity = queueCapacity;
+        this.maxPerUser = maxPerUser;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        AtomicInteger threadCount = new AtomicInteger();
+        // each subscriber has at most one drain task queued, so the work queue is bounded by the subscribers
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "change-feed-sender-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public SseEmitter subscribe() {
+        Long userId = currentUserId();
+        Subscriber subscriber = new Subscriber(userId, new SseEmitter(timeoutMillis));
+        Set<Subscriber> own = subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet());
+        own.add(subscriber);
+        if (own.size() > maxPerUser) {
+            remove(subscriber);
+            throw new TooManyRequestsException("Too many open change feeds");
+        }
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> remove(subscriber));
+        subscriber.emitter.onError(error -> remove(subscriber));
+        return subscriber.emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChange(DataChangeEvent event) {
+        Set<Subscriber> own = subscribers.get(event.getUserId());
+        if (own == null) {
+            return;
+        }
+        ChangeNotification notification = new ChangeNotification(
+                event.getSource().name().toLowerCase(Locale.ROOT), event.getDeltas());
+        for (Subscriber subscriber : own) {
+            subscriber.offer(new Message(CHANGE_EVENT, notification));
+        }
+    }
+
+    /**
+     * Keeps proxies from closing idle streams and finds connections the client has dropped.
+     */
+    @Scheduled(fixedDelayString = "${app.changes.sse.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Set<Subscriber> own : subscribers.values()) {
+            for (Subscriber subscriber : own) {
+                subscriber.offer(Message.HEARTBEAT);
+            }
+        }
+    }
+
+    /**
+     * Drops subscribers whose current send is blocked past the send timeout. The emitter is left
+     * alone here, since completing it would wait on the blocked write; the stuck sender completes
+     * it once the container's write timeout fails the send.
+     */
+    @Scheduled(fixedDelayString = "${app.changes.sse.send-check-ms:1000}")
+    public void dropStalled() {
+        long now = System.nanoTime();
+        for (Set<Subscriber> own : subscribers.values()) {
+            for (Subscriber subscriber : own) {
+                if (subscriber.markStalled(now)) {
+                    log.debug("Dropping stalled change feed subscriber for user {}", subscriber.userId);
+                    remove(subscriber);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Set<Subscriber> own : subscribers.values()) {
+            for (Subscriber subscriber : own) {
+                subscriber.emitter.complete();
+            }
+        }
+        senders.shutdownNow();
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, own) -> {
+            own.remove(subscriber);
+            return own.isEmpty() ? null : own;
+        });
+    }
+
+    private void resizeSenders(int delta) {
+        synchronized (senders) {
+            // the maximum may never drop below the core size, so grow it first and shrink it last
+            if (delta > 0) {
+                senders.setMaximumPoolSize(senders.getMaximumPoolSize() + delta);
+                senders.setCorePoolSize(senders.getCorePoolSize() + delta);
+            } else {
+                senders.setCorePoolSize(senders.getCorePoolSize() + delta);
+                senders.setMaximumPoolSize(senders.getMaximumPoolSize() + delta);
+            }
+        }
+    }
+
+    private Long currentUserId() {
+        AuthenticatedUser principal = SecurityUtils.getCurrentUser();
+        if (principal == null) {
+            throw new ResourceNotFoundException("Authenticated user not found");
+        }
+        return principal.getId();
+    }
+
+    private final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Message> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // System.nanoTime() when the send in progress started, 0 when not sending
+        private volatile long sendStartedAt;
+        private volatile boolean stalled;
+        // guarded by this; the sender thread lent to the pool while this subscriber's send is stuck
+        private boolean lentSender;
+
+        private Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void offer(Message message) {
+            synchronized (queue) {
+                if (!queue.offer(message)) {
+                    if (message == Message.HEARTBEAT) {
+                        return;
+                    }
+                    queue.clear();
+                    queue.offer(new Message(RESYNC_EVENT, null));
+                }
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private synchronized boolean markStalled(long now) {
+            long started = sendStartedAt;
+            if (stalled || started == 0 || now - started <= sendTimeoutNanos) {
+                return false;
+            }
+            stalled = true;
+            lentSender = true;
+            resizeSenders(1);
+            return true;
+        }
+
+        private synchronized void returnSender() {
+            if (lentSender) {
+                lentSender = false;
+                resizeSenders(-1);
+            }
+        }
+
+        private void drain() {
+            try {
+                Message message;
+                while (!stalled && (message = queue.poll()) != null) {
+                    sendStartedAt = System.nanoTime();
+                    try {
+                        emitter.send(message.toEvent());
+                    } finally {
+                        sendStartedAt = 0;
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping change feed subscriber for user {}: {}", userId, e.getMessage());
+                remove(this);
+                emitter.complete();
+                return;
+            } finally {
+                draining.set(false);
+                returnSender();
+            }
+            if (stalled) {
+                emitter.complete();
+                return;
+            }
+            // a message may have been queued after the last poll but before draining was cleared
+            if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+    }
+
+    private static final class Message {
+        private static final Message HEARTBEAT = new Message(null, null);
+
+        private final String name;
+        private final Object data;
+
+        private Message(String name, Object data) {
+            this.name = name;
+            this.data = data;
+        }
+
+        private SseEmitter.SseEventBuilder toEvent() {
+            if (name == null) {
+                return SseEmitter.event().comment("ping");
+            }
+            SseEmitter.SseEventBuilder event = SseEmitter.event().name(name);
+            return data == null ? event.data("", MediaType.TEXT_PLAIN) : event.data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.fintrack.service;
+
+import com.fintrack.dto.ExpenseResponse;
+import com.fintrack.service.aggregation.CategoryCents;
+import com.fintrack.service.aggregation.Cents;
+import com.fintrack.service.aggregation.ReportTotals;
+import com.fintrack.utils.CsvWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.function.LongFunction;
+
+class CsvReportRowWriter implements ReportRowWriter {
+
+    private final CsvWriter csv;
+
+    CsvReportRowWriter(OutputStream out) {
+        this.csv = new CsvWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    public void start() throws IOException {
+        csv.row("Date", "Category", "Amount", "Payment Mode", "Description");
+    }
+
+    @Override
+    public void row(ExpenseResponse expense, String categoryName) throws IOException {
+        csv.field(expense.getDate().toString())
+                .field(categoryName)
+                .field(expense.getAmount().toPlainString())
+                .field(expense.getPaymentMode())
+                .field(expense.getDescription())
+                .endRow();
+    }
+
+    @Override
+    public void summary(ReportTotals totals, LongFunction<String> categoryNames) throws IOException {
+        CategoryCents categories = totals.categories();
+        csv.endRow();
+        csv.row("Category", "Total");
+        for (int index : categories.indexesByCentsDescending()) {
+            csv.row(categoryNames.apply(categories.categoryId(index)),
+                    Cents.toAmount(categories.cents(index)).toPlainString());
+        }
+        csv.endRow();
+        csv.row("Month", "Total");
+        for (int i = 0; i < totals.monthCount(); i++) {
+            csv.row(totals.month(i).toString(), Cents.toAmount(totals.monthCents(i)).toPlainString());
+        }
+        csv.endRow();
+        csv.row("Grand Total", Cents.toAmount(totals.totalCents()).toPlainString());
+        csv.row("Expenses", Long.toString(totals.count()));
+    }
+
+    @Override
+    public void finish() throws IOException {
+        csv.flush();
+    }
+}
@@ -0,0 +1,40 @@
+package com.fintrack.service;
+
+import com.fintrack.dto.RollupDelta;
+
+import java.util.List;
+
+/**
+ * Published by a write inside its transaction; the change feed only receives it after commit.
+ * {@code deltas} holds the rollup changes when the write knows them, and is empty otherwise.
+ */
+public class DataChangeEvent {
+
+    public enum Source {
+        EXPENSES,
+        CATEGORIES,
+        ROLLUPS
+    }
+
+    private final Long userId;
+    private final Source source;
+    private final List<RollupDelta> deltas;
+
+    public DataChangeEvent(Long userId, Source source, List<RollupDelta> deltas) {
+        this.userId = userId;
+        this.source = source;
+        this.deltas = deltas;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    public List<RollupDelta> getDeltas() {
+        return deltas;
+    }
+}
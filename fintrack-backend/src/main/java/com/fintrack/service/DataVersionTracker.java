@@ -0,0 +1,45 @@
+package com.fintrack.service;
+
+import com.fintrack.repository.ExpenseChangeSequenceRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Per-user data version, read from the user's persisted change sequence so that every instance
+ * sees the same value. Expense writes advance the sequence themselves; other writes that change
+ * what a user sees advance it through {@link #markChanged}. Readers capture the version before
+ * computing a derived result, so anything cached against an older version is stale once a write
+ * commits, whichever instance took it.
+ */
+@Component
+public class DataVersionTracker {
+
+    private final ExpenseChangeSequenceRepository changeSequences;
+    private final TransactionTemplate transactionTemplate;
+
+    public DataVersionTracker(ExpenseChangeSequenceRepository changeSequences,
+                              PlatformTransactionManager transactionManager) {
+        this.changeSequences = changeSequences;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public long current(Long userId) {
+        return changeSequences.currentSeq(userId).orElse(0L);
+    }
+
+    /**
+     * Version as a string, for keys and client ETags.
+     */
+    public String versionTag(Long userId) {
+        return Long.toString(current(userId));
+    }
+
+    /**
+     * Advances the version for a write that does not reserve change sequence numbers itself. It
+     * joins the caller's transaction when there is one, so the bump commits with the write.
+     */
+    public void markChanged(Long userId) {
+        transactionTemplate.executeWithoutResult(status -> changeSequences.advance(userId, 1));
+    }
+}
@@ -0,0 +1,345 @@
+package com.fintrack.service;
+
+import com.fintrack.dto.ExpenseImportResponse;
+import com.fintrack.dto.ExpenseRequest;
+import com.fintrack.dto.ImportRowError;
+import com.fintrack.exceptions.InvalidRequestException;
+import com.fintrack.exceptions.ResourceNotFoundException;
+import com.fintrack.exceptions.TooManyRequestsException;
+import com.fintrack.security.AuthenticatedUser;
+import com.fintrack.utils.CsvReader;
+import com.fintrack.utils.SecurityUtils;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Imports expenses from an uploaded CSV file in the background. The upload is spooled to disk,
+ * parsed one record at a time and inserted in fixed-size batches, each in its own transaction,
+ * so a large file never sits in memory and a bad row only costs itself.
+ */
+@Service
+public class ExpenseImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseImportService.class);
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final String[] REQUIRED_COLUMNS = {"date", "category", "amount", "paymentmode"};
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final ExpenseService expenseService;
+    private final CategoryDictionary categoryDictionary;
+    private final Validator validator;
+    private final Path spoolDir;
+    private final int batchSize;
+    private final long ttlMillis;
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentMap<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, AtomicInteger> activeByUser = new ConcurrentHashMap<>();
+
+    public ExpenseImportService(ExpenseService expenseService,
+                                CategoryDictionary categoryDictionary,
+                                Validator validator,
+                                @Value("${app.imports.spool-dir:${java.io.tmpdir}/fintrack-imports}") String spoolDir,
+                                @Value("${app.imports.batch-size:500}") int batchSize,
+                                @Value("${app.imports.threads:1}") int threads,
+                                @Value("${app.imports.queue-capacity:20}") int queueCapacity,
+                                @Value("${app.imports.ttl-ms:3600000}") long ttlMillis) throws IOException {
+        this.expenseService = expenseService;
+        this.categoryDictionary = categoryDictionary;
+        this.validator = validator;
+        this.spoolDir = Paths.get(spoolDir);
+        this.batchSize = batchSize;
+        this.ttlMillis = ttlMillis;
+        Files.createDirectories(this.spoolDir);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.spoolDir)) {
+            for (Path file : files) {
+                deleteQuietly(file);
+            }
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "expense-import-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public ExpenseImportResponse submit(MultipartFile file, boolean dedupe) {
+        if (file == null || file.isEmpty()) {
+            throw new InvalidRequestException("Import file is empty");
+        }
+        Long userId = currentUserId();
+        AtomicInteger active = activeByUser.computeIfAbsent(userId, id -> new AtomicInteger());
+        if (active.incrementAndGet() > 1) {
+            active.decrementAndGet();
+            throw new TooManyRequestsException("An import is already in progress");
+        }
+        String id = UUID.randomUUID().toString();
+        ImportJob job = new ImportJob(id, userId, dedupe, spoolDir.resolve(id + ".csv"));
+        try {
+            file.transferTo(job.file);
+        } catch (IOException e) {
+            active.decrementAndGet();
+            deleteQuietly(job.file);
+            throw new IllegalStateException("Could not store the uploaded file", e);
+        }
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            active.decrementAndGet();
+            deleteQuietly(job.file);
+            throw new TooManyRequestsException("Import queue is full, try again later");
+        }
+        return toResponse(job);
+    }
+
+    public ExpenseImportResponse getImport(String importId) {
+        ImportJob job = jobs.get(importId);
+        if (job == null || !job.userId.equals(currentUserId())) {
+            throw new ResourceNotFoundException("Import not found");
+        }
+        return toResponse(job);
+    }
+
+    @Scheduled(fixedDelayString = "${app.imports.cleanup-interval-ms:60000}")
+    public void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - ttlMillis;
+        Iterator<ImportJob> iterator = jobs.values().iterator();
+        while (iterator.hasNext()) {
+            ImportJob job = iterator.next();
+            if (job.finishedAt > 0 && job.finishedAt < cutoff) {
+                iterator.remove();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(ImportJob job) {
+        job.status = Status.RUNNING;
+        job.startedAt = System.currentTimeMillis();
+        try (Reader reader = Files.newBufferedReader(job.file, StandardCharsets.UTF_8)) {
+            CsvReader csv = new CsvReader(reader);
+            Map<String, Integer> columns = readHeader(csv.next());
+            CategoryDictionary.CategoryNames categories = categoryDictionary.forUser(job.userId);
+            List<ExpenseRequest> batch = new ArrayList<>(batchSize);
+            List<String> record;
+            while ((record = csv.next()) != null) {
+                job.rowsRead++;
+                ExpenseRequest request = toRequest(record, columns, categories, csv.line(), job);
+                if (request == null) {
+                    continue;
+                }
+                batch.add(request);
+                if (batch.size() == batchSize) {
+                    flush(job, batch);
+                }
+            }
+            flush(job, batch);
+            job.status = Status.COMPLETED;
+        } catch (Exception e) {
+            log.warn("Expense import {} failed", job.id, e);
+            job.failure = e instanceof InvalidRequestException ? e.getMessage() : "Import failed";
+            job.status = Status.FAILED;
+        } finally {
+            job.completedAt = LocalDateTime.now();
+            job.finishedAt = System.currentTimeMillis();
+            deleteQuietly(job.file);
+            activeByUser.get(job.userId).decrementAndGet();
+        }
+    }
+
+    private void flush(ImportJob job, List<ExpenseRequest> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        int inserted = expenseService.importBatch(job.userId, batch, job.dedupe);
+        job.rowsImported += inserted;
+        job.rowsDuplicate += batch.size() - inserted;
+        batch.clear();
+    }
+
+    private Map<String, Integer> readHeader(List<String> header) {
+        if (header == null) {
+            throw new InvalidRequestException("Import file has no header row");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).replace("\uFEFF", "").replace(" ", "").trim().toLowerCase(Locale.ROOT);
+            columns.putIfAbsent(name, i);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new InvalidRequestException("Import file is missing the " + required + " column");
+            }
+        }
+        return columns;
+    }
+
+    private ExpenseRequest toRequest(List<String> record,
+                                     Map<String, Integer> columns,
+                                     CategoryDictionary.CategoryNames categories,
+                                     long line,
+                                     ImportJob job) {
+        ExpenseRequest request = new ExpenseRequest();
+        String category = column(record, columns, "category");
+        request.setCategoryId(categories.idOf(category));
+        if (request.getCategoryId() == null) {
+            return reject(job, line, "Unknown category: " + category);
+        }
+        try {
+            String date = column(record, columns, "date");
+            request.setDate(date == null ? null : LocalDate.parse(date));
+        } catch (DateTimeParseException e) {
+            return reject(job, line, "Invalid date, expected yyyy-MM-dd");
+        }
+        try {
+            String amount = column(record, columns, "amount");
+            request.setAmount(amount == null ? null : new BigDecimal(amount));
+        } catch (NumberFormatException e) {
+            return reject(job, line, "Invalid amount");
+        }
+        request.setPaymentMode(column(record, columns, "paymentmode"));
+        request.setDescription(column(record, columns, "description"));
+        List<String> violations = new ArrayList<>();
+        for (ConstraintViolation<ExpenseRequest> violation : validator.validate(request)) {
+            violations.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        if (!violations.isEmpty()) {
+            Collections.sort(violations);
+            return reject(job, line, String.join("; ", violations));
+        }
+        return request;
+    }
+
+    private String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private ExpenseRequest reject(ImportJob job, long line, String message) {
+        job.rowsRejected++;
+        synchronized (job.errors) {
+            if (job.errors.size() < MAX_REPORTED_ERRORS) {
+                job.errors.add(new ImportRowError(line, message));
+            }
+        }
+        return null;
+    }
+
+    private ExpenseImportResponse toResponse(ImportJob job) {
+        long end = job.finishedAt > 0 ? job.finishedAt : System.currentTimeMillis();
+        long elapsed = job.startedAt > 0 ? end - job.startedAt : 0;
+        double rowsPerSecond = elapsed > 0 ? job.rowsRead * 1000.0 / elapsed : 0;
+        List<ImportRowError> errors;
+        synchronized (job.errors) {
+            errors = new ArrayList<>(job.errors);
+        }
+        if (job.failure != null) {
+            errors.add(new ImportRowError(0, job.failure));
+        }
+        return new ExpenseImportResponse(
+                job.id,
+                job.status.name(),
+                job.rowsRead,
+                job.rowsImported,
+                job.rowsDuplicate,
+                job.rowsRejected,
+                Math.round(rowsPerSecond * 10) / 10.0,
+                errors,
+                job.createdAt,
+                job.completedAt);
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete import file {}", file, e);
+        }
+    }
+
+    private Long currentUserId() {
+        AuthenticatedUser principal = SecurityUtils.getCurrentUser();
+        if (principal == null) {
+            throw new ResourceNotFoundException("Authenticated user not found");
+        }
+        return principal.getId();
+    }
+
+    private static final class ImportJob {
+        private final String id;
+        private final Long userId;
+        private final boolean dedupe;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private final Path file;
+        private volatile Status status = Status.QUEUED;
+        private volatile long rowsRead;
+        private volatile long rowsImported;
+        private volatile long rowsDuplicate;
+        private volatile long rowsRejected;
+        private volatile String failure;
+        private volatile long startedAt;
+        private volatile long finishedAt;
+        private volatile LocalDateTime completedAt;
+
+        private ImportJob(String id, Long userId, boolean dedupe, Path file) {
+            this.id = id;
+            this.userId = userId;
+            this.dedupe = dedupe;
+            this.file = file;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.fintrack.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fintrack.dto.ExpenseRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only NDJSON journal behind {@link ExpenseIngestionService}. {@code ENQ} and
+ * {@code PREPARE} records are forced to disk before they return; a thread that finds its record
+ * already covered by another thread's force skips its own, so concurrent appends share one fsync.
+ * {@code COMMIT} and {@code FAIL} records are written without forcing, since losing one only
+ * costs a marker lookup on recovery. The journal keeps its open records in memory, and whenever
+ * the file has grown by the compaction threshold it is rewritten with just those: the
+ * {@code ENQ} records not yet committed or failed, and the latest {@code PREPARE} for each of
+ * them, which recovery needs if that batch committed before its {@code COMMIT} was written.
+ */
+final class ExpenseIngestionJournal implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseIngestionJournal.class);
+
+    static final String ENQUEUED = "ENQ";
+    static final String PREPARED = "PREPARE";
+    static final String COMMITTED = "COMMIT";
+    static final String FAILED = "FAIL";
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private final long compactBytes;
+    private final Object writeLock = new Object();
+    private final Object syncLock = new Object();
+    // ENQ records by ingestion id, in append order
+    private final Map<String, ObjectNode> openEnqueued = new LinkedHashMap<>();
+    // ingestion id to the batch it was last prepared in, and each batch to the ids whose latest batch it is
+    private final Map<String, String> latestBatch = new HashMap<>();
+    private final Map<String, List<String>> batchIds = new LinkedHashMap<>();
+    private FileChannel channel;
+    // logical bytes ever appended; unlike the file size it never goes back, so sync positions stay valid across rewrites
+    private long appended;
+    private long synced;
+    private long fileBytes;
+    private long compactAt;
+    private boolean closed;
+
+    ExpenseIngestionJournal(Path file, ObjectMapper objectMapper, long compactBytes) throws IOException {
+        this.file = file;
+        this.objectMapper = objectMapper;
+        this.compactBytes = compactBytes;
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        this.channel = openChannel(file);
+        this.fileBytes = channel.size();
+        this.compactAt = fileBytes + compactBytes;
+    }
+
+    /**
+     * Reads every complete record. A line torn by a crash mid-append ends the read.
+     */
+    List<JsonNode> read() throws IOException {
+        List<JsonNode> records = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    records.add(objectMapper.readTree(line));
+                } catch (JsonProcessingException e) {
+                    log.warn("Ignoring torn record at the end of ingestion journal {}", file);
+                    break;
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Replaces the journal with {@code records}, which are all still-open {@code ENQ} records.
+     */
+    void rewrite(List<ObjectNode> records) throws IOException {
+        synchronized (writeLock) {
+            openEnqueued.clear();
+            latestBatch.clear();
+            batchIds.clear();
+            for (ObjectNode record : records) {
+                openEnqueued.put(record.path("id").asText(), record);
+            }
+            compact();
+        }
+    }
+
+    ObjectNode enqueueRecord(String id, Long userId, ExpenseRequest request, LocalDateTime acceptedAt) {
+        ObjectNode record = objectMapper.createObjectNode();
+        record.put("type", ENQUEUED);
+        record.put("id", id);
+        record.put("userId", userId);
+        record.put("acceptedAt", acceptedAt.toString());
+        record.set("request", objectMapper.valueToTree(request));
+        return record;
+    }
+
+    void enqueued(String id, Long userId, ExpenseRequest request, LocalDateTime acceptedAt) throws IOException {
+        ObjectNode record = enqueueRecord(id, userId, request, acceptedAt);
+        long position;
+        synchronized (writeLock) {
+            position = append(record);
+            openEnqueued.put(id, record);
+        }
+        sync(position);
+    }
+
+    void prepared(String batchId, List<String> ids) throws IOException {
+        ObjectNode record = objectMapper.createObjectNode();
+        record.put("type", PREPARED);
+        record.put("batch", batchId);
+        ids.forEach(record.putArray("ids")::add);
+        long position;
+        synchronized (writeLock) {
+            position = append(record);
+            batchIds.put(batchId, new ArrayList<>(ids));
+            for (String id : ids) {
+                String previous = latestBatch.put(id, batchId);
+                if (previous != null) {
+                    // an earlier attempt rolled back, so its PREPARE no longer matters for this id
+                    List<String> earlier = batchIds.get(previous);
+                    earlier.remove(id);
+                    if (earlier.isEmpty()) {
+                        batchIds.remove(previous);
+                    }
+                }
+            }
+        }
+        sync(position);
+    }
+
+    void committed(String batchId) {
+        ObjectNode record = objectMapper.createObjectNode();
+        record.put("type", COMMITTED);
+        record.put("batch", batchId);
+        synchronized (writeLock) {
+            for (String id : batchIds.getOrDefault(batchId, List.of())) {
+                openEnqueued.remove(id);
+                latestBatch.remove(id);
+            }
+            batchIds.remove(batchId);
+            appendQuietly(record);
+        }
+    }
+
+    void failed(String id) {
+        ObjectNode record = objectMapper.createObjectNode();
+        record.put("type", FAILED);
+        record.put("id", id);
+        synchronized (writeLock) {
+            openEnqueued.remove(id);
+            String batchId = latestBatch.remove(id);
+            if (batchId != null) {
+                List<String> ids = batchIds.get(batchId);
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    batchIds.remove(batchId);
+                }
+            }
+            appendQuietly(record);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            closed = true;
+            channel.force(true);
+            channel.close();
+        }
+    }
+
+    private void appendQuietly(ObjectNode record) {
+        try {
+            append(record);
+            if (fileBytes >= compactAt) {
+                compact();
+            }
+        } catch (IOException e) {
+            log.warn("Could not append {} record to ingestion journal", record.path("type").asText(), e);
+        }
+    }
+
+    private long append(ObjectNode record) throws IOException {
+        byte[] line = toLine(record);
+        synchronized (writeLock) {
+            writeFully(channel, line);
+            appended += line.length;
+            fileBytes += line.length;
+            return appended;
+        }
+    }
+
+    private void sync(long position) throws IOException {
+        synchronized (syncLock) {
+            while (synced < position) {
+                long target;
+                FileChannel current;
+                synchronized (writeLock) {
+                    if (closed) {
+                        throw new ClosedChannelException();
+                    }
+                    target = appended;
+                    current = channel;
+                }
+                try {
+                    current.force(false);
+                    synced = target;
+                } catch (ClosedChannelException e) {
+                    // a compaction swapped the file after the channel was read; force its replacement instead
+                }
+            }
+        }
+    }
+
+    /**
+     * Rewrites the file with only the open records. Everything appended before is either in the
+     * new file, forced before it replaces the old one, or no longer needed.
+     */
+    private void compact() throws IOException {
+        synchronized (writeLock) {
+            Path partial = file.resolveSibling(file.getFileName() + ".part");
+            long bytes = 0;
+            try (FileChannel out = FileChannel.open(partial, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                for (ObjectNode record : openEnqueued.values()) {
+                    bytes += writeFully(out, toLine(record));
+                }
+                for (Map.Entry<String, List<String>> batch : batchIds.entrySet()) {
+                    ObjectNode record = objectMapper.createObjectNode();
+                    record.put("type", PREPARED);
+                    record.put("batch", batch.getKey());
+                    batch.getValue().forEach(record.putArray("ids")::add);
+                    bytes += writeFully(out, toLine(record));
+                }
+                out.force(true);
+            }
+            channel.close();
+            Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            forceDirectory();
+            channel = openChannel(file);
+            fileBytes = bytes;
+            compactAt = bytes + compactBytes;
+        }
+    }
+
+    private void forceDirectory() {
+        try (FileChannel directory = FileChannel.open(file.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // not every platform can open a directory; the rename is still atomic there
+            log.debug("Could not force journal directory", e);
+        }
+    }
+
+    private byte[] toLine(ObjectNode record) throws JsonProcessingException {
+        return (objectMapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int writeFully(FileChannel target, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+        return bytes.length;
+    }
+
+    private static FileChannel openChannel(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,437 @@
+package com.fintrack.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fintrack.dto.ExpenseIngestionResponse;
+import com.fintrack.dto.ExpenseRequest;
+import com.fintrack.exceptions.ResourceNotFoundException;
+import com.fintrack.exceptions.TooManyRequestsException;
+import com.fintrack.model.IdempotencyRecord;
+import com.fintrack.repository.IdempotencyRecordRepository;
+import com.fintrack.security.AuthenticatedUser;
+import com.fintrack.utils.SecurityUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind ingestion for high-rate expense feeds. An accepted expense is journaled to local
+ * disk before it is acknowledged, then queued for a single writer thread that inserts whatever
+ * has accumulated in one transaction, so a burst costs one commit per batch instead of one per
+ * expense. The queue is bounded and a full queue answers 429.
+ *
+ * <p>Each batch is journaled as {@code PREPARE} before its transaction, and the transaction also
+ * stores an {@code idempotency_keys} marker per user mapping ingestion ids to expense ids. On
+ * startup, journaled expenses without a {@code COMMIT} are looked up through those markers, so
+ * a crash between the database commit and the journal write does not insert them twice.
+ * Statuses are kept in memory for the configured TTL; after a restart only the expenses
+ * recovered from the journal are known.
+ */
+@Service
+@ConditionalOnProperty(name = "app.ingest.enabled", havingValue = "true")
+public class ExpenseIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseIngestionService.class);
+
+    private static final String MARKER_PREFIX = "ingest:";
+    // markers are never matched against a client request, so they carry a fixed hash
+    private static final String MARKER_HASH = "expense-ingestion";
+    private static final long SHUTDOWN_WAIT_MILLIS = 10000;
+    private static final long RETRY_INITIAL_MILLIS = 100;
+    private static final long RETRY_MAX_MILLIS = 30000;
+
+    public enum Status {
+        QUEUED, COMPLETED, FAILED
+    }
+
+    private final ExpenseService expenseService;
+    private final IdempotencyRecordRepository recordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ExpenseIngestionJournal journal;
+    private final int maxBatch;
+    private final long lingerMillis;
+    private final long ttlMillis;
+    private final Semaphore capacity;
+    private final BlockingQueue<Ingestion> queue = new LinkedBlockingQueue<>();
+    private final ConcurrentMap<String, Ingestion> ingestions = new ConcurrentHashMap<>();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public ExpenseIngestionService(ExpenseService expenseService,
+                                   IdempotencyRecordRepository recordRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   ObjectMapper objectMapper,
+                                   @Value("${app.ingest.journal-file:}") String journalFile,
+                                   @Value("${app.ingest.compact-bytes:67108864}") long compactBytes,
+                                   @Value("${app.ingest.queue-capacity:10000}") int queueCapacity,
+                                   @Value("${app.ingest.max-batch:500}") int maxBatch,
+                                   @Value("${app.ingest.linger-ms:5}") long lingerMillis,
+                                   @Value("${app.ingest.ttl-ms:86400000}") long ttlMillis) throws IOException {
+        this.expenseService = expenseService;
+        this.recordRepository = recordRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.journal = new ExpenseIngestionJournal(journalPath(journalFile), objectMapper, compactBytes);
+        this.maxBatch = maxBatch;
+        this.lingerMillis = lingerMillis;
+        this.ttlMillis = ttlMillis;
+        this.capacity = new Semaphore(queueCapacity);
+        this.writer = new Thread(this::runWriter, "expense-ingest-writer");
+        this.writer.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        recover();
+        writer.start();
+    }
+
+    public ExpenseIngestionResponse submit(ExpenseRequest request) {
+        Long userId = currentUserId();
+        if (!running || !capacity.tryAcquire()) {
+            throw new TooManyRequestsException("Ingestion queue is full, try again later");
+        }
+        Ingestion ingestion = new Ingestion(UUID.randomUUID().toString(), userId, request, LocalDateTime.now(), true);
+        try {
+            journal.enqueued(ingestion.id, userId, request, ingestion.acceptedAt);
+        } catch (IOException e) {
+            capacity.release();
+            throw new IllegalStateException("Could not journal expense", e);
+        }
+        ingestions.put(ingestion.id, ingestion);
+        queue.add(ingestion);
+        return toResponse(ingestion);
+    }
+
+    public ExpenseIngestionResponse getIngestion(String id) {
+        Ingestion ingestion = ingestions.get(id);
+        if (ingestion == null || !ingestion.userId.equals(currentUserId())) {
+            throw new ResourceNotFoundException("Ingestion not found");
+        }
+        return toResponse(ingestion);
+    }
+
+    /**
+     * Status of an ingestion regardless of who submitted it, or {@code null} if it is not known.
+     */
+    ExpenseIngestionResponse lookup(String id) {
+        Ingestion ingestion = ingestions.get(id);
+        return ingestion == null ? null : toResponse(ingestion);
+    }
+
+    @Scheduled(fixedDelayString = "${app.ingest.cleanup-interval-ms:60000}")
+    public void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - ttlMillis;
+        Iterator<Ingestion> iterator = ingestions.values().iterator();
+        while (iterator.hasNext()) {
+            Ingestion ingestion = iterator.next();
+            if (ingestion.finishedAt > 0 && ingestion.finishedAt < cutoff) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Stops taking new expenses and gives the writer a moment to drain the queue. Anything left
+     * is still in the journal and is picked up on the next start.
+     */
+    @PreDestroy
+    public void shutdown() throws IOException, InterruptedException {
+        running = false;
+        writer.join(SHUTDOWN_WAIT_MILLIS);
+        if (writer.isAlive()) {
+            writer.interrupt();
+            writer.join(SHUTDOWN_WAIT_MILLIS);
+        }
+        journal.close();
+    }
+
+    private void runWriter() {
+        List<Ingestion> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Ingestion first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // wait briefly for stragglers so a burst lands in as few commits as possible
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+                while (batch.size() < maxBatch) {
+                    queue.drainTo(batch, maxBatch - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatch || remaining <= 0) {
+                        break;
+                    }
+                    Ingestion next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Expense ingestion writer failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes a batch, retrying transient failures with backoff while the expenses stay queued.
+     * A batch that fails for any other reason is retried one expense at a time so a single bad
+     * row does not fail the rest; only an expense that still fails on its own is marked failed.
+     */
+    private void write(List<Ingestion> batch) throws InterruptedException {
+        long backoff = RETRY_INITIAL_MILLIS;
+        while (true) {
+            String batchId = UUID.randomUUID().toString();
+            Map<String, Long> expenseIds;
+            try {
+                journal.prepared(batchId, batch.stream().map(ingestion -> ingestion.id).collect(Collectors.toList()));
+                expenseIds = transactionTemplate.execute(status -> insert(batchId, batch));
+            } catch (IOException | RuntimeException e) {
+                if (isTransient(e)) {
+                    if (!running) {
+                        log.warn("Leaving {} ingested expenses in the journal for the next start", batch.size(), e);
+                        return;
+                    }
+                    log.warn("Writing {} ingested expenses failed, retrying in {} ms", batch.size(), backoff, e);
+                    Thread.sleep(backoff);
+                    backoff = Math.min(backoff * 2, RETRY_MAX_MILLIS);
+                    continue;
+                }
+                if (batch.size() > 1) {
+                    for (Ingestion ingestion : batch) {
+                        write(List.of(ingestion));
+                    }
+                    return;
+                }
+                Ingestion ingestion = batch.get(0);
+                log.warn("Ingested expense {} could not be saved", ingestion.id, e);
+                journal.failed(ingestion.id);
+                finish(ingestion, null, "Expense could not be saved");
+                return;
+            }
+            journal.committed(batchId);
+            for (Ingestion ingestion : batch) {
+                finish(ingestion, expenseIds.get(ingestion.id), null);
+            }
+            return;
+        }
+    }
+
+    /**
+     * Lost connections, deadlocks, lock-wait timeouts and journal I/O errors say nothing about the
+     * expense itself, so they are retried rather than reported as failures.
+     */
+    private static boolean isTransient(Exception e) {
+        return e instanceof IOException
+                || e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private Map<String, Long> insert(String batchId, List<Ingestion> batch) {
+        Map<Long, List<Ingestion>> byUser = new LinkedHashMap<>();
+        for (Ingestion ingestion : batch) {
+            byUser.computeIfAbsent(ingestion.userId, id -> new ArrayList<>()).add(ingestion);
+        }
+        Instant expiresAt = Instant.now().plusMillis(ttlMillis);
+        Map<String, Long> expenseIds = new HashMap<>();
+        for (Map.Entry<Long, List<Ingestion>> entry : byUser.entrySet()) {
+            List<Ingestion> own = entry.getValue();
+            List<Long> saved = expenseService.insertBatch(entry.getKey(),
+                    own.stream().map(ingestion -> ingestion.request).collect(Collectors.toList()));
+            Map<String, Long> ownIds = new LinkedHashMap<>();
+            for (int i = 0; i < own.size(); i++) {
+                ownIds.put(own.get(i).id, saved.get(i));
+            }
+            IdempotencyRecord marker = new IdempotencyRecord(entry.getKey(), MARKER_PREFIX + batchId, MARKER_HASH, expiresAt);
+            marker.setResponseBody(toJson(ownIds));
+            recordRepository.save(marker);
+            expenseIds.putAll(ownIds);
+        }
+        return expenseIds;
+    }
+
+    private void finish(Ingestion ingestion, Long expenseId, String error) {
+        ingestion.expenseId = expenseId;
+        ingestion.error = error;
+        ingestion.status = error == null ? Status.COMPLETED : Status.FAILED;
+        ingestion.completedAt = LocalDateTime.now();
+        ingestion.finishedAt = System.currentTimeMillis();
+        if (ingestion.holdsPermit) {
+            capacity.release();
+        }
+    }
+
+    /**
+     * Replays the journal: expenses whose batch committed are restored as completed, the rest go
+     * back on the queue, and the journal is rewritten to hold only those.
+     */
+    void recover() throws IOException {
+        Map<String, Ingestion> open = new LinkedHashMap<>();
+        Map<String, List<String>> batches = new HashMap<>();
+        Map<String, List<String>> batchesByIngestion = new HashMap<>();
+        for (JsonNode record : journal.read()) {
+            String type = record.path("type").asText();
+            if (ExpenseIngestionJournal.ENQUEUED.equals(type)) {
+                String id = record.path("id").asText();
+                open.put(id, new Ingestion(id, record.path("userId").asLong(),
+                        objectMapper.treeToValue(record.path("request"), ExpenseRequest.class),
+                        LocalDateTime.parse(record.path("acceptedAt").asText()), false));
+            } else if (ExpenseIngestionJournal.PREPARED.equals(type)) {
+                String batchId = record.path("batch").asText();
+                List<String> ids = new ArrayList<>();
+                record.path("ids").forEach(id -> ids.add(id.asText()));
+                batches.put(batchId, ids);
+                ids.forEach(id -> batchesByIngestion.computeIfAbsent(id, key -> new ArrayList<>()).add(batchId));
+            } else if (ExpenseIngestionJournal.COMMITTED.equals(type)) {
+                batches.getOrDefault(record.path("batch").asText(), List.of()).forEach(open::remove);
+            } else if (ExpenseIngestionJournal.FAILED.equals(type)) {
+                open.remove(record.path("id").asText());
+            }
+        }
+        Map<String, Map<String, Long>> markers = new HashMap<>();
+        List<ObjectNode> pending = new ArrayList<>();
+        for (Ingestion ingestion : open.values()) {
+            Long expenseId = null;
+            for (String batchId : batchesByIngestion.getOrDefault(ingestion.id, List.of())) {
+                expenseId = markers.computeIfAbsent(ingestion.userId + ":" + batchId,
+                        key -> findMarker(ingestion.userId, batchId)).get(ingestion.id);
+                if (expenseId != null) {
+                    break;
+                }
+            }
+            ingestions.put(ingestion.id, ingestion);
+            if (expenseId != null) {
+                finish(ingestion, expenseId, null);
+            } else {
+                pending.add(journal.enqueueRecord(ingestion.id, ingestion.userId, ingestion.request, ingestion.acceptedAt));
+                queue.add(ingestion);
+            }
+        }
+        journal.rewrite(pending);
+        if (!open.isEmpty()) {
+            log.info("Recovered {} journaled expenses, {} still to be written", open.size(), pending.size());
+        }
+    }
+
+    private Map<String, Long> findMarker(Long userId, String batchId) {
+        Optional<IdempotencyRecord> marker = recordRepository.findByUserIdAndIdempotencyKey(userId, MARKER_PREFIX + batchId);
+        if (marker.isEmpty() || marker.get().getResponseBody() == null) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(marker.get().getResponseBody(), new TypeReference<Map<String, Long>>() {
+            });
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read ingestion marker", e);
+        }
+    }
+
+    /**
+     * The journal is what makes an acknowledged expense survive a crash, so it must live on
+     * storage that outlasts a reboot; there is no default and the temp directory is refused.
+     */
+    private static Path journalPath(String journalFile) {
+        if (journalFile == null || journalFile.isBlank()) {
+            throw new IllegalStateException("app.ingest.journal-file must be set when app.ingest.enabled=true");
+        }
+        Path path = Paths.get(journalFile).toAbsolutePath().normalize();
+        if (path.startsWith(Paths.get(System.getProperty("java.io.tmpdir")).toAbsolutePath().normalize())) {
+            throw new IllegalStateException("app.ingest.journal-file must not be in the temp directory: " + path);
+        }
+        return path;
+    }
+
+    private ExpenseIngestionResponse toResponse(Ingestion ingestion) {
+        return new ExpenseIngestionResponse(
+                ingestion.id,
+                ingestion.status.name(),
+                ingestion.expenseId,
+                ingestion.error,
+                ingestion.acceptedAt,
+                ingestion.completedAt);
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize ingestion marker", e);
+        }
+    }
+
+    private Long currentUserId() {
+        AuthenticatedUser principal = SecurityUtils.getCurrentUser();
+        if (principal == null) {
+            throw new ResourceNotFoundException("Authenticated user not found");
+        }
+        return principal.getId();
+    }
+
+    private static final class Ingestion {
+        private final String id;
+        private final Long userId;
+        private final ExpenseRequest request;
+        private final LocalDateTime acceptedAt;
+        // recovered expenses were admitted before the restart and do not count against the queue
+        private final boolean holdsPermit;
+        private volatile Status status = Status.QUEUED;
+        private volatile Long expenseId;
+        private volatile String error;
+        private volatile LocalDateTime completedAt;
+        private volatile long finishedAt;
+
+        private Ingestion(String id, Long userId, ExpenseRequest request, LocalDateTime acceptedAt, boolean holdsPermit) {
+            this.id = id;
+            this.userId = userId;
+            this.request = request;
+            this.acceptedAt = acceptedAt;
+            this.holdsPermit = holdsPermit;
+        }
+    }
+}
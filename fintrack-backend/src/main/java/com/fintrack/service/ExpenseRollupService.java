@@ -0,0 +1,174 @@
+package com.fintrack.service;
+
+import com.fintrack.dto.ExpenseResponse;
+import com.fintrack.dto.RollupDelta;
+import com.fintrack.model.Expense;
+import com.fintrack.model.ExpenseMonthlyRollup;
+import com.fintrack.repository.ExpenseMonthlyRollupRepository;
+import com.fintrack.repository.ExpenseRepository;
+import com.fintrack.repository.MonthlyCategoryTotal;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps {@code expense_monthly_rollup} in step with expense writes. The {@code on*} methods run in
+ * the caller's transaction and return the deltas they applied, for the change feed.
+ */
+@Service
+public class ExpenseRollupService {
+
+    private final ExpenseMonthlyRollupRepository rollupRepository;
+    private final ExpenseRepository expenseRepository;
+    private final DataVersionTracker dataVersions;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ExpenseRollupService(ExpenseMonthlyRollupRepository rollupRepository,
+                                ExpenseRepository expenseRepository,
+                                DataVersionTracker dataVersions,
+                                ApplicationEventPublisher eventPublisher) {
+        this.rollupRepository = rollupRepository;
+        this.expenseRepository = expenseRepository;
+        this.dataVersions = dataVersions;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<RollupDelta> onCreated(Expense expense) {
+        List<RollupDelta> applied = new ArrayList<>(1);
+        apply(applied, expense.getUser().getId(), expense.getDate(), expense.getCategoryId(), expense.getAmount(), 1);
+        return applied;
+    }
+
+    /**
+     * Applies a batch of new expenses with one upsert per (month, category) bucket instead of
+     * one per expense.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<RollupDelta> onCreatedAll(Long userId, List<Expense> expenses) {
+        Map<String, Bucket> buckets = new LinkedHashMap<>();
+        for (Expense expense : expenses) {
+            int periodKey = ExpenseMonthlyRollup.periodKey(YearMonth.from(expense.getDate()));
+            Bucket bucket = buckets.computeIfAbsent(periodKey + ":" + expense.getCategoryId(),
+                    key -> new Bucket(periodKey, expense.getCategoryId()));
+            bucket.total = bucket.total.add(expense.getAmount());
+            bucket.count++;
+        }
+        List<RollupDelta> applied = new ArrayList<>(buckets.size());
+        for (Bucket bucket : buckets.values()) {
+            applyDelta(applied, userId, bucket.periodKey, bucket.categoryId, bucket.total, bucket.count);
+        }
+        return applied;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<RollupDelta> onDeleted(ExpenseResponse expense) {
+        List<RollupDelta> applied = new ArrayList<>(1);
+        apply(applied, expense.getUserId(), expense.getDate(), expense.getCategoryId(), expense.getAmount().negate(), -1);
+        return applied;
+    }
+
+    /**
+     * Removes bulk-deleted expenses, given their totals per month and category.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<RollupDelta> onDeletedAll(Long userId, List<MonthlyCategoryTotal> removed) {
+        List<RollupDelta> applied = new ArrayList<>(removed.size());
+        for (MonthlyCategoryTotal bucket : removed) {
+            applyDelta(applied, userId, periodKey(bucket), bucket.getCategoryId(),
+                    bucket.getTotal().negate(), -bucket.getExpenseCount());
+        }
+        return applied;
+    }
+
+    /**
+     * Moves bulk-recategorized expenses, given their totals per month and previous category, into
+     * {@code categoryId}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<RollupDelta> onRecategorized(Long userId, List<MonthlyCategoryTotal> moved, Long categoryId) {
+        List<RollupDelta> applied = new ArrayList<>(moved.size() * 2);
+        for (MonthlyCategoryTotal bucket : moved) {
+            int periodKey = periodKey(bucket);
+            applyDelta(applied, userId, periodKey, bucket.getCategoryId(),
+                    bucket.getTotal().negate(), -bucket.getExpenseCount());
+            applyDelta(applied, userId, periodKey, categoryId,
+                    bucket.getTotal(), bucket.getExpenseCount());
+        }
+        return applied;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<RollupDelta> onUpdated(Long userId,
+                                       LocalDate oldDate, Long oldCategoryId, BigDecimal oldAmount,
+                                       LocalDate newDate, Long newCategoryId, BigDecimal newAmount) {
+        List<RollupDelta> applied = new ArrayList<>(2);
+        boolean sameBucket = YearMonth.from(oldDate).equals(YearMonth.from(newDate))
+                && Objects.equals(oldCategoryId, newCategoryId);
+        if (sameBucket) {
+            BigDecimal delta = newAmount.subtract(oldAmount);
+            if (delta.signum() != 0) {
+                apply(applied, userId, newDate, newCategoryId, delta, 0);
+            }
+            return applied;
+        }
+        apply(applied, userId, oldDate, oldCategoryId, oldAmount.negate(), -1);
+        apply(applied, userId, newDate, newCategoryId, newAmount, 1);
+        return applied;
+    }
+
+    @Transactional
+    public int rebuild(Long userId) {
+        rollupRepository.deleteByUserId(userId);
+        List<ExpenseMonthlyRollup> rollups = expenseRepository.sumByMonthAndCategory(userId).stream()
+                .map(row -> new ExpenseMonthlyRollup(
+                        userId,
+                        periodKey(row),
+                        row.getCategoryId(),
+                        row.getTotal(),
+                        row.getExpenseCount()))
+                .collect(Collectors.toList());
+        rollupRepository.saveAll(rollups);
+        dataVersions.markChanged(userId);
+        eventPublisher.publishEvent(new DataChangeEvent(userId, DataChangeEvent.Source.ROLLUPS, List.of()));
+        return rollups.size();
+    }
+
+    private static int periodKey(MonthlyCategoryTotal row) {
+        return ExpenseMonthlyRollup.periodKey(YearMonth.of(row.getPeriodYear(), row.getPeriodMonth()));
+    }
+
+    private void apply(List<RollupDelta> applied, Long userId, LocalDate date, Long categoryId,
+                       BigDecimal amount, long count) {
+        applyDelta(applied, userId, ExpenseMonthlyRollup.periodKey(YearMonth.from(date)), categoryId, amount, count);
+    }
+
+    private void applyDelta(List<RollupDelta> applied, Long userId, int periodKey, Long categoryId,
+                            BigDecimal amount, long count) {
+        rollupRepository.applyDelta(userId, periodKey, categoryId, amount, count);
+        applied.add(new RollupDelta(ExpenseMonthlyRollup.toYearMonth(periodKey).toString(), categoryId, amount, count));
+    }
+
+    private static final class Bucket {
+        private final int periodKey;
+        private final Long categoryId;
+        private BigDecimal total = BigDecimal.ZERO;
+        private long count;
+
+        private Bucket(int periodKey, Long categoryId) {
+            this.periodKey = periodKey;
+            this.categoryId = categoryId;
+        }
+    }
+}
@@ -1,31 +1,85 @@
 package com.fintrack.service;
 
+import com.fintrack.dto.ExpenseBatchItemResult;
+import com.fintrack.dto.ExpenseBatchResponse;
+import com.fintrack.dto.ExpenseBulkResponse;
+import com.fintrack.dto.ExpenseChangesResponse;
+import com.fintrack.dto.ExpenseFilter;
+import com.fintrack.dto.ExpensePageResponse;
+import com.fintrack.dto.ExpensePatchRequest;
 import com.fintrack.dto.ExpenseRequest;
 import com.fintrack.dto.ExpenseResponse;
+import com.fintrack.dto.RollupDelta;
+import com.fintrack.exceptions.ConcurrentUpdateException;
+import com.fintrack.exceptions.InvalidRequestException;
+import com.fintrack.exceptions.PreconditionFailedException;
 import com.fintrack.exceptions.ResourceNotFoundException;
 import com.fintrack.model.Expense;
 import com.fintrack.model.User;
+import com.fintrack.repository.ExpenseChange;
+import com.fintrack.repository.ExpenseChangeSequenceRepository;
+import com.fintrack.repository.ExpenseFingerprint;
 import com.fintrack.repository.ExpenseRepository;
+import com.fintrack.repository.MonthlyCategoryTotal;
 import com.fintrack.repository.UserRepository;
+import com.fintrack.security.AuthenticatedUser;
 import com.fintrack.utils.SecurityUtils;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class ExpenseService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int DEFAULT_CHANGES_LIMIT = 500;
+    private static final int MAX_CHANGES_LIMIT = 1000;
+
     private final ExpenseRepository expenseRepository;
+    private final ExpenseChangeSequenceRepository changeSequences;
     private final UserRepository userRepository;
+    private final ExpenseRollupService rollupService;
+    private final DataVersionTracker dataVersions;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
 
     public ExpenseService(ExpenseRepository expenseRepository,
-                          UserRepository userRepository) {
+                          ExpenseChangeSequenceRepository changeSequences,
+                          UserRepository userRepository,
+                          ExpenseRollupService rollupService,
+                          DataVersionTracker dataVersions,
+                          ApplicationEventPublisher eventPublisher,
+                          Validator validator) {
         this.expenseRepository = expenseRepository;
+        this.changeSequences = changeSequences;
         this.userRepository = userRepository;
+        this.rollupService = rollupService;
+        this.dataVersions = dataVersions;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
     }
 
+    @Transactional
     public ExpenseResponse createExpense(ExpenseRequest request) {
         User user = getCurrentUser();
         Expense expense = new Expense(
@@ -37,50 +91,403 @@ public class ExpenseService {
                 request.getDate(),
                 request.getPaymentMode()
         );
+        expense.setChangeSeq(reserveChangeSeqs(user.getId(), 1));
         Expense saved = expenseRepository.save(expense);
+        changed(user.getId(), rollupService.onCreated(saved));
         return toResponse(saved);
     }
 
-    public List<ExpenseResponse> getExpenses() {
+    /**
+     * Validates each request on its own and inserts the valid ones in one transaction. Ids come
+     * from the pooled table generator, so the inserts go out as JDBC batches.
+     */
+    @Transactional
+    public ExpenseBatchResponse createExpenses(List<ExpenseRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new InvalidRequestException("Batch must contain at least one expense");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new InvalidRequestException("Batch cannot contain more than " + MAX_BATCH_SIZE + " expenses");
+        }
+        User user = getCurrentUser();
+        ExpenseBatchItemResult[] results = new ExpenseBatchItemResult[requests.size()];
+        List<Expense> expenses = new ArrayList<>(requests.size());
+        List<Integer> indexes = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            ExpenseRequest request = requests.get(i);
+            Map<String, String> errors = validate(request);
+            if (!errors.isEmpty()) {
+                results[i] = new ExpenseBatchItemResult(i, "REJECTED", null, errors);
+                continue;
+            }
+            expenses.add(new Expense(
+                    null,
+                    user,
+                    request.getCategoryId(),
+                    request.getAmount(),
+                    request.getDescription(),
+                    request.getDate(),
+                    request.getPaymentMode()));
+            indexes.add(i);
+        }
+        if (!expenses.isEmpty()) {
+            List<Expense> saved = insertAll(user, expenses);
+            for (int i = 0; i < saved.size(); i++) {
+                int index = indexes.get(i);
+                results[index] = new ExpenseBatchItemResult(index, "CREATED", toResponse(saved.get(i)), null);
+            }
+        }
+        return new ExpenseBatchResponse(expenses.size(), requests.size() - expenses.size(), Arrays.asList(results));
+    }
+
+    /**
+     * Inserts one batch of already validated import rows for {@code userId}. With {@code dedupe},
+     * rows matching an existing expense (or an earlier row of the batch) on date, amount and
+     * description are skipped. Returns the number of rows inserted.
+     */
+    @Transactional
+    public int importBatch(Long userId, List<ExpenseRequest> requests, boolean dedupe) {
+        User user = userRepository.getReferenceById(userId);
+        Set<String> seen = new HashSet<>();
+        if (dedupe) {
+            Set<LocalDate> dates = requests.stream().map(ExpenseRequest::getDate).collect(Collectors.toSet());
+            for (ExpenseFingerprint existing : expenseRepository.findFingerprints(userId, dates)) {
+                seen.add(fingerprint(existing.getExpenseDate(), existing.getAmount(), existing.getDescription()));
+            }
+        }
+        List<Expense> expenses = new ArrayList<>(requests.size());
+        for (ExpenseRequest request : requests) {
+            if (dedupe && !seen.add(fingerprint(request.getDate(), request.getAmount(), request.getDescription()))) {
+                continue;
+            }
+            expenses.add(new Expense(
+                    null,
+                    user,
+                    request.getCategoryId(),
+                    request.getAmount(),
+                    request.getDescription(),
+                    request.getDate(),
+                    request.getPaymentMode()));
+        }
+        if (!expenses.isEmpty()) {
+            insertAll(user, expenses);
+        }
+        return expenses.size();
+    }
+
+    /**
+     * Inserts already validated expenses for {@code userId} and returns their ids in request
+     * order. Used by the ingestion writer, which runs without a security context and joins the
+     * caller's transaction.
+     */
+    @Transactional
+    public List<Long> insertBatch(Long userId, List<ExpenseRequest> requests) {
+        User user = userRepository.getReferenceById(userId);
+        List<Expense> expenses = new ArrayList<>(requests.size());
+        for (ExpenseRequest request : requests) {
+            expenses.add(new Expense(
+                    null,
+                    user,
+                    request.getCategoryId(),
+                    request.getAmount(),
+                    request.getDescription(),
+                    request.getDate(),
+                    request.getPaymentMode()));
+        }
+        return insertAll(user, expenses).stream().map(Expense::getId).collect(Collectors.toList());
+    }
+
+    public ExpensePageResponse getExpenses(ExpenseFilter filter, String cursor, Integer limit) {
         User user = getCurrentUser();
-        return expenseRepository.findAllByUser(user).stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        LocalDate afterDate = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decodeCursor(cursor);
+            afterDate = LocalDate.parse(position[0]);
+            afterId = Long.parseLong(position[1]);
+        }
+        List<ExpenseResponse> rows = expenseRepository.findPage(user, filter, afterDate, afterId, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<ExpenseResponse> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? encodeCursor(page.get(page.size() - 1)) : null;
+        return new ExpensePageResponse(page, nextCursor);
     }
 
     public ExpenseResponse getExpenseById(Long id) {
-        Expense expense = getExpenseForCurrentUser(id);
-        return toResponse(expense);
+        return findOwned(id, currentUserId());
     }
 
-    public ExpenseResponse updateExpense(Long id, ExpenseRequest request) {
-        Expense expense = getExpenseForCurrentUser(id);
-        expense.setCategoryId(request.getCategoryId());
-        expense.setAmount(request.getAmount());
-        expense.setDescription(request.getDescription());
-        expense.setDate(request.getDate());
-        expense.setPaymentMode(request.getPaymentMode());
-        return toResponse(expenseRepository.save(expense));
+    /**
+     * Returns the inserts, updates and deletes after {@code since}, oldest first. {@code since} is
+     * the value from the previous response; omit it on the first sync to start from the beginning.
+     * Live rows and tombstones are read from one snapshot, so a change committed between the two
+     * reads cannot be skipped by the returned {@code since}.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public ExpenseChangesResponse getChanges(String since, Integer limit) {
+        Long userId = currentUserId();
+        int pageSize = limit == null ? DEFAULT_CHANGES_LIMIT : Math.min(Math.max(limit, 1), MAX_CHANGES_LIMIT);
+        long afterSeq = -1;
+        long afterId = Long.MAX_VALUE;
+        if (since != null && !since.isBlank()) {
+            try {
+                int dot = since.indexOf('.');
+                afterSeq = Long.parseLong(dot < 0 ? since : since.substring(0, dot));
+                afterId = dot < 0 ? Long.MAX_VALUE : Long.parseLong(since.substring(dot + 1));
+            } catch (NumberFormatException ex) {
+                throw new InvalidRequestException("Invalid since");
+            }
+        }
+        List<ExpenseChange> changes = expenseRepository.findChanges(userId, afterSeq, afterId, pageSize + 1);
+        boolean hasMore = changes.size() > pageSize;
+        List<ExpenseChange> page = hasMore ? changes.subList(0, pageSize) : changes;
+        List<ExpenseResponse> upserts = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        for (ExpenseChange change : page) {
+            if (change.getExpense() == null) {
+                deletes.add(change.getExpenseId());
+            } else {
+                upserts.add(change.getExpense());
+            }
+        }
+        String next;
+        if (page.isEmpty()) {
+            next = since == null || since.isBlank() ? "0" : since;
+        } else {
+            ExpenseChange last = page.get(page.size() - 1);
+            // a page that ends inside one sequence number (a batch or bulk change) resumes after the last id
+            boolean splitsSeq = hasMore && changes.get(pageSize).getChangeSeq() == last.getChangeSeq();
+            next = splitsSeq ? last.getChangeSeq() + "." + last.getExpenseId() : Long.toString(last.getChangeSeq());
+        }
+        return new ExpenseChangesResponse(upserts, deletes, next, hasMore);
     }
 
-    public void deleteExpense(Long id) {
-        Expense expense = getExpenseForCurrentUser(id);
-        expenseRepository.delete(expense);
+    public String versionTag() {
+        return dataVersions.versionTag(currentUserId());
     }
 
-    private Expense getExpenseForCurrentUser(Long id) {
-        User user = getCurrentUser();
-        return expenseRepository.findByIdAndUser(id, user)
+    /**
+     * Reads the current row through the projection and writes the new values with one UPDATE
+     * guarded by its version, so the rollup delta matches what was replaced. With
+     * {@code expectedVersion}, the update only applies while the expense is still at that version.
+     */
+    @Transactional
+    public ExpenseResponse updateExpense(Long id, ExpenseRequest request, Long expectedVersion) {
+        Long userId = currentUserId();
+        ExpenseResponse current = findOwned(id, userId, expectedVersion);
+        return applyUpdate(current, expectedVersion, new ExpenseResponse(
+                id,
+                userId,
+                request.getCategoryId(),
+                request.getAmount(),
+                request.getDescription(),
+                request.getDate(),
+                request.getPaymentMode(),
+                current.getVersion() + 1));
+    }
+
+    @Transactional
+    public ExpenseResponse patchExpense(Long id, ExpensePatchRequest request, Long expectedVersion) {
+        if (request.getPaymentMode() != null && request.getPaymentMode().isBlank()) {
+            throw new InvalidRequestException("Payment mode cannot be blank");
+        }
+        Long userId = currentUserId();
+        ExpenseResponse current = findOwned(id, userId, expectedVersion);
+        return applyUpdate(current, expectedVersion, new ExpenseResponse(
+                id,
+                userId,
+                request.getCategoryId() != null ? request.getCategoryId() : current.getCategoryId(),
+                request.getAmount() != null ? request.getAmount() : current.getAmount(),
+                request.getDescription() != null ? request.getDescription() : current.getDescription(),
+                request.getDate() != null ? request.getDate() : current.getDate(),
+                request.getPaymentMode() != null ? request.getPaymentMode() : current.getPaymentMode(),
+                current.getVersion() + 1));
+    }
+
+    @Transactional
+    public void deleteExpense(Long id, Long expectedVersion) {
+        Long userId = currentUserId();
+        ExpenseResponse current = findOwned(id, userId, expectedVersion);
+        long changeSeq = reserveChangeSeqs(userId, 1);
+        if (expenseRepository.deleteUnchanged(userId, current, changeSeq) == 0) {
+            throw staleVersion(expectedVersion);
+        }
+        changed(userId, rollupService.onDeleted(current));
+    }
+
+    /**
+     * Deletes every expense matching {@code filter} with one statement. The rollup is adjusted
+     * from a per-month, per-category total of the same rows, read under a row lock just before
+     * the delete. If the delete still touches a different number of rows, the transaction is
+     * rolled back rather than leaving the rollup out of step.
+     */
+    @Transactional
+    public ExpenseBulkResponse deleteExpenses(ExpenseFilter filter) {
+        requireCriteria(filter);
+        Long userId = currentUserId();
+        long changeSeq = reserveChangeSeqs(userId, 1);
+        List<MonthlyCategoryTotal> removed = expenseRepository.sumByMonthAndCategory(userId, filter, null);
+        if (removed.isEmpty()) {
+            return new ExpenseBulkResponse(0);
+        }
+        int deleted = expenseRepository.deleteFiltered(userId, filter, changeSeq);
+        requireAffected(removed, deleted);
+        changed(userId, rollupService.onDeletedAll(userId, removed));
+        return new ExpenseBulkResponse(deleted);
+    }
+
+    @Transactional
+    public ExpenseBulkResponse recategorizeExpenses(ExpenseFilter filter, Long categoryId) {
+        if (categoryId == null) {
+            throw new InvalidRequestException("Target category is required");
+        }
+        requireCriteria(filter);
+        Long userId = currentUserId();
+        long changeSeq = reserveChangeSeqs(userId, 1);
+        List<MonthlyCategoryTotal> moved = expenseRepository.sumByMonthAndCategory(userId, filter, categoryId);
+        if (moved.isEmpty()) {
+            return new ExpenseBulkResponse(0);
+        }
+        int updated = expenseRepository.recategorizeFiltered(userId, filter, categoryId, changeSeq);
+        requireAffected(moved, updated);
+        changed(userId, rollupService.onRecategorized(userId, moved, categoryId));
+        return new ExpenseBulkResponse(updated);
+    }
+
+    private ExpenseResponse applyUpdate(ExpenseResponse current, Long expectedVersion, ExpenseResponse next) {
+        if (!differs(current, next)) {
+            return current;
+        }
+        Long userId = current.getUserId();
+        long changeSeq = reserveChangeSeqs(userId, 1);
+        if (expenseRepository.updateChanged(userId, current, next, changeSeq) == 0) {
+            throw staleVersion(expectedVersion);
+        }
+        changed(userId, rollupService.onUpdated(userId,
+                current.getDate(), current.getCategoryId(), current.getAmount(),
+                next.getDate(), next.getCategoryId(), next.getAmount()));
+        return next;
+    }
+
+    private static boolean differs(ExpenseResponse current, ExpenseResponse next) {
+        return !Objects.equals(current.getCategoryId(), next.getCategoryId())
+                || current.getAmount().compareTo(next.getAmount()) != 0
+                || !current.getDate().equals(next.getDate())
+                || !Objects.equals(current.getDescription(), next.getDescription())
+                || !Objects.equals(current.getPaymentMode(), next.getPaymentMode());
+    }
+
+    // the change sequence reserved by the write already moves the user's data version
+    private void changed(Long userId, List<RollupDelta> deltas) {
+        eventPublisher.publishEvent(new DataChangeEvent(userId, DataChangeEvent.Source.EXPENSES, deltas));
+    }
+
+    /**
+     * Reserves {@code count} consecutive change sequence numbers for the user and returns the
+     * first. This locks the user's sequence row until commit, so it comes before other writes.
+     */
+    private long reserveChangeSeqs(Long userId, int count) {
+        changeSequences.advance(userId, count);
+        return changeSequences.lastSeq(userId) - count + 1;
+    }
+
+    private static RuntimeException staleVersion(Long expectedVersion) {
+        if (expectedVersion != null) {
+            return new PreconditionFailedException("Expense has been modified");
+        }
+        return new ConcurrentUpdateException("Expense was changed by another request");
+    }
+
+    private static void requireAffected(List<MonthlyCategoryTotal> summed, int affected) {
+        long expected = summed.stream().mapToLong(MonthlyCategoryTotal::getExpenseCount).sum();
+        if (expected != affected) {
+            throw new ConcurrentUpdateException("Expenses were changed by another request");
+        }
+    }
+
+    private static void requireCriteria(ExpenseFilter filter) {
+        boolean any = filter.getFrom() != null
+                || filter.getTo() != null
+                || (filter.getCategoryIds() != null && !filter.getCategoryIds().isEmpty())
+                || (filter.getPaymentMode() != null && !filter.getPaymentMode().isBlank())
+                || filter.getMinAmount() != null
+                || filter.getMaxAmount() != null;
+        if (!any) {
+            throw new InvalidRequestException("At least one filter is required for bulk changes");
+        }
+    }
+
+    private List<Expense> insertAll(User user, List<Expense> expenses) {
+        long changeSeq = reserveChangeSeqs(user.getId(), expenses.size());
+        for (Expense expense : expenses) {
+            expense.setChangeSeq(changeSeq++);
+        }
+        List<Expense> saved = expenseRepository.saveAll(expenses);
+        changed(user.getId(), rollupService.onCreatedAll(user.getId(), saved));
+        return saved;
+    }
+
+    private static String fingerprint(LocalDate date, BigDecimal amount, String description) {
+        return date + "|" + amount.stripTrailingZeros().toPlainString() + "|"
+                + (description == null ? "" : description.trim());
+    }
+
+    private Map<String, String> validate(ExpenseRequest request) {
+        if (request == null) {
+            return Map.of("expense", "Expense is required");
+        }
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (ConstraintViolation<ExpenseRequest> violation : validator.validate(request)) {
+            errors.putIfAbsent(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+
+    private ExpenseResponse findOwned(Long id, Long userId) {
+        return expenseRepository.findResponseById(id, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Expense not found"));
     }
 
+    private ExpenseResponse findOwned(Long id, Long userId, Long expectedVersion) {
+        ExpenseResponse current = findOwned(id, userId);
+        if (expectedVersion != null && current.getVersion() != expectedVersion) {
+            throw new PreconditionFailedException("Expense has been modified");
+        }
+        return current;
+    }
+
+    private static String encodeCursor(ExpenseResponse last) {
+        String position = last.getDate() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\|");
+            if (parts.length != 2) {
+                throw new InvalidRequestException("Invalid cursor");
+            }
+            LocalDate.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+
     private User getCurrentUser() {
-        String email = SecurityUtils.getCurrentUserEmail();
-        if (email == null) {
+        return userRepository.getReferenceById(currentUserId());
+    }
+
+    private Long currentUserId() {
+        AuthenticatedUser principal = SecurityUtils.getCurrentUser();
+        if (principal == null) {
             throw new ResourceNotFoundException("Authenticated user not found");
         }
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        return principal.getId();
     }
 
     private ExpenseResponse toResponse(Expense expense) {
@@ -91,7 +498,8 @@ public class ExpenseService {
                 expense.getAmount(),
                 expense.getDescription(),
                 expense.getDate(),
-                expense.getPaymentMode()
+                expense.getPaymentMode(),
+                expense.getVersion()
         );
     }
 }
@@ -0,0 +1,259 @@
+package com.fintrack.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintrack.exceptions.IdempotencyKeyReusedException;
+import com.fintrack.exceptions.InvalidRequestException;
+import com.fintrack.exceptions.ResourceAlreadyExistsException;
+import com.fintrack.exceptions.ResourceNotFoundException;
+import com.fintrack.model.IdempotencyRecord;
+import com.fintrack.repository.IdempotencyRecordRepository;
+import com.fintrack.security.AuthenticatedUser;
+import com.fintrack.utils.SecurityUtils;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs a write at most once per (user, Idempotency-Key). The key is claimed by inserting its
+ * {@code idempotency_keys} row in the same transaction as the write, so the row and the write
+ * commit or roll back together and the unique constraint settles races across instances.
+ * Completed responses are kept as JSON and replayed byte for byte. An in-memory layer answers
+ * hot replays and makes concurrent duplicates in this process wait for the first request.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 128;
+    private static final String KEY_CONSTRAINT = "uk_idempotency_user_key";
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository recordRepository,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${app.idempotency.ttl-ms:86400000}") long ttlMillis,
+                              @Value("${app.idempotency.max-entries:10000}") int maxEntries) {
+        this.recordRepository = recordRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    public Outcome execute(String key, String endpoint, Object request, Supplier<?> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidRequestException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        Long userId = currentUserId();
+        String requestHash = hash(endpoint, request);
+        String entryKey = userId + ":" + key;
+        while (true) {
+            Entry existing = entries.get(entryKey);
+            if (existing != null && !existing.isExpired()) {
+                checkHash(existing.requestHash, requestHash);
+                return new Outcome(await(existing.response), true);
+            }
+            Entry entry = new Entry(requestHash);
+            boolean claimed = existing == null
+                    ? entries.putIfAbsent(entryKey, entry) == null
+                    : entries.replace(entryKey, existing, entry);
+            if (!claimed) {
+                continue;
+            }
+            try {
+                Outcome outcome = run(userId, key, requestHash, action);
+                entry.expiresAt = System.currentTimeMillis() + ttlMillis;
+                entry.response.complete(outcome.getBody());
+                return outcome;
+            } catch (RuntimeException e) {
+                entries.remove(entryKey, entry);
+                entry.response.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval-ms:300000}")
+    public void purgeExpired() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isExpired()) {
+                iterator.remove();
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> recordRepository.deleteExpired(Instant.now()));
+    }
+
+    private Outcome run(Long userId, String key, String requestHash, Supplier<?> action) {
+        Optional<IdempotencyRecord> stored = findLive(userId, key);
+        if (stored.isPresent()) {
+            checkHash(stored.get().getRequestHash(), requestHash);
+            return new Outcome(stored.get().getResponseBody(), true);
+        }
+        try {
+            String body = transactionTemplate.execute(status -> {
+                IdempotencyRecord record = claim(new IdempotencyRecord(
+                        userId, key, requestHash, Instant.now().plusMillis(ttlMillis)));
+                String json = toJson(action.get());
+                record.setResponseBody(json);
+                return json;
+            });
+            trimEntries();
+            return new Outcome(body, false);
+        } catch (KeyClaimedException e) {
+            // another instance claimed the key first; its row is visible once it has committed
+            IdempotencyRecord winner = findLive(userId, key)
+                    .filter(record -> record.getResponseBody() != null)
+                    .orElseThrow(() -> new ResourceAlreadyExistsException(
+                            "A request with this Idempotency-Key is already in progress"));
+            checkHash(winner.getRequestHash(), requestHash);
+            return new Outcome(winner.getResponseBody(), true);
+        }
+    }
+
+    /**
+     * Inserts the claim row. Only a violation of the (user, key) constraint means the key was
+     * taken; anything else the insert or the action throws propagates unchanged.
+     */
+    private IdempotencyRecord claim(IdempotencyRecord record) {
+        try {
+            return recordRepository.saveAndFlush(record);
+        } catch (DataIntegrityViolationException e) {
+            if (e.getCause() instanceof ConstraintViolationException violation
+                    && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(KEY_CONSTRAINT)) {
+                throw new KeyClaimedException();
+            }
+            throw e;
+        }
+    }
+
+    private Optional<IdempotencyRecord> findLive(Long userId, String key) {
+        Optional<IdempotencyRecord> record = recordRepository.findByUserIdAndIdempotencyKey(userId, key);
+        if (record.isPresent() && record.get().getExpiresAt().isBefore(Instant.now())) {
+            transactionTemplate.executeWithoutResult(status -> recordRepository.deleteById(record.get().getId()));
+            return Optional.empty();
+        }
+        return record;
+    }
+
+    private void trimEntries() {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.response.isDone()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private String await(CompletableFuture<String> response) {
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void checkHash(String stored, String requestHash) {
+        if (!stored.equals(requestHash)) {
+            throw new IdempotencyKeyReusedException("Idempotency-Key was already used with a different request");
+        }
+    }
+
+    private String hash(String endpoint, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(endpoint.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Could not hash request", e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response", e);
+        }
+    }
+
+    private Long currentUserId() {
+        AuthenticatedUser principal = SecurityUtils.getCurrentUser();
+        if (principal == null) {
+            throw new ResourceNotFoundException("Authenticated user not found");
+        }
+        return principal.getId();
+    }
+
+    public static final class Outcome {
+        private final String body;
+        private final boolean replayed;
+
+        private Outcome(String body, boolean replayed) {
+            this.body = body;
+            this.replayed = replayed;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public boolean isReplayed() {
+            return replayed;
+        }
+    }
+
+    private static final class KeyClaimedException extends RuntimeException {
+        private KeyClaimedException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final class Entry {
+        private final String requestHash;
+        private final CompletableFuture<String> response = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private Entry(String requestHash) {
+            this.requestHash = requestHash;
+        }
+
+        private boolean isExpired() {
+            return expiresAt < System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.fintrack.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fintrack.dto.ExpenseResponse;
+import com.fintrack.service.aggregation.CategoryCents;
+import com.fintrack.service.aggregation.Cents;
+import com.fintrack.service.aggregation.ReportTotals;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.LongFunction;
+
+/**
+ * One JSON object per line. With a summary, the last line is a single {@code {"summary": ...}}
+ * object so line consumers can tell it apart from expense rows.
+ */
+class NdjsonReportRowWriter implements ReportRowWriter {
+
+    private final JsonGenerator json;
+
+    NdjsonReportRowWriter(JsonFactory factory, OutputStream out) throws IOException {
+        this.json = factory.createGenerator(out);
+        this.json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.json.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void row(ExpenseResponse expense, String categoryName) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", expense.getId());
+        json.writeStringField("date", expense.getDate().toString());
+        json.writeNumberField("categoryId", expense.getCategoryId());
+        json.writeStringField("category", categoryName);
+        json.writeNumberField("amount", expense.getAmount());
+        json.writeStringField("paymentMode", expense.getPaymentMode());
+        json.writeStringField("description", expense.getDescription());
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    @Override
+    public void summary(ReportTotals totals, LongFunction<String> categoryNames) throws IOException {
+        CategoryCents categories = totals.categories();
+        json.writeStartObject();
+        json.writeObjectFieldStart("summary");
+        json.writeArrayFieldStart("categories");
+        for (int index : categories.indexesByCentsDescending()) {
+            json.writeStartObject();
+            json.writeNumberField("categoryId", categories.categoryId(index));
+            json.writeStringField("category", categoryNames.apply(categories.categoryId(index)));
+            json.writeNumberField("total", Cents.toAmount(categories.cents(index)));
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+        json.writeArrayFieldStart("months");
+        for (int i = 0; i < totals.monthCount(); i++) {
+            json.writeStartObject();
+            json.writeStringField("month", totals.month(i).toString());
+            json.writeNumberField("total", Cents.toAmount(totals.monthCents(i)));
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+        json.writeNumberField("total", Cents.toAmount(totals.totalCents()));
+        json.writeNumberField("count", totals.count());
+        json.writeEndObject();
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        json.close();
+    }
+}
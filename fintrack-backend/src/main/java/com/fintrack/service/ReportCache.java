@@ -0,0 +1,275 @@
+package com.fintrack.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Disk cache of generated reports. Keys are content addresses over user, format, parameters and
+ * the user's {@link DataVersionTracker} tag, so any write makes older entries unreachable and
+ * they age out through the size-bounded LRU. The directory is wiped on startup.
+ */
+@Component
+public class ReportCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportCache.class);
+
+    @FunctionalInterface
+    public interface ReportWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final DataVersionTracker dataVersions;
+    private final Path directory;
+    private final long maxBytes;
+    private final long sendfileGraceMillis;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Queue<SendfileLink> sendfileLinks = new ConcurrentLinkedQueue<>();
+    private long totalBytes;
+
+    public ReportCache(DataVersionTracker dataVersions,
+                       @Value("${app.reports.cache.dir:${java.io.tmpdir}/fintrack-report-cache}") String directory,
+                       @Value("${app.reports.cache.max-bytes:268435456}") long maxBytes,
+                       @Value("${app.reports.cache.sendfile-grace-ms:60000}") long sendfileGraceMillis) throws IOException {
+        this.dataVersions = dataVersions;
+        this.directory = Paths.get(directory);
+        this.maxBytes = maxBytes;
+        this.sendfileGraceMillis = sendfileGraceMillis;
+        Files.createDirectories(this.directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory)) {
+            for (Path file : files) {
+                delete(file);
+            }
+        }
+    }
+
+    public String key(Long userId, ReportFormat format, String params) {
+        String source = userId + "|" + format.name() + "|" + params + "|" + dataVersions.versionTag(userId);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(source.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Sends the cached report for {@code key}, or generates it with {@code writer} while teeing the
+     * bytes into a new cache file. When the connector supports it, a hit is handed to Tomcat's
+     * sendfile so the file goes to the socket without passing through the JVM.
+     */
+    public void serve(String key, ReportWriter writer, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Path cached = lookup(key);
+        if (cached != null && sendCached(cached, request, response)) {
+            return;
+        }
+        OutputStream out = response.getOutputStream();
+        if (maxBytes <= 0) {
+            writer.write(out);
+            return;
+        }
+        Path partial = directory.resolve(key + "." + UUID.randomUUID() + ".part");
+        boolean complete = false;
+        try (OutputStream file = Files.newOutputStream(partial)) {
+            writer.write(new TeeOutputStream(out, file));
+            complete = true;
+        } finally {
+            if (complete) {
+                store(key, partial);
+            } else {
+                delete(partial);
+            }
+        }
+    }
+
+    private Path lookup(String key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            return entry == null ? null : entry.file;
+        }
+    }
+
+    private boolean sendCached(Path file, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        try {
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                Path link = linkForSendfile(file);
+                if (link != null) {
+                    long size = Files.size(link);
+                    response.setContentLengthLong(size);
+                    request.setAttribute(SENDFILE_FILENAME, link.toAbsolutePath().toString());
+                    request.setAttribute(SENDFILE_START, 0L);
+                    request.setAttribute(SENDFILE_END, size);
+                    return true;
+                }
+            }
+            // an open channel keeps the file readable even if it is evicted mid-copy
+            try (FileChannel cached = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = cached.size();
+                response.setContentLengthLong(size);
+                OutputStream out = response.getOutputStream();
+                WritableByteChannel target = Channels.newChannel(out);
+                long position = 0;
+                while (position < size) {
+                    position += cached.transferTo(position, size - position, target);
+                }
+                out.flush();
+            }
+            return true;
+        } catch (NoSuchFileException e) {
+            // evicted between lookup and open
+            return false;
+        }
+    }
+
+    /**
+     * Tomcat opens a sendfile path only after the request returns, by which time the entry may
+     * have been evicted. It is given a private hard link instead, which eviction never touches and
+     * which is deleted once Tomcat has long since opened it. Returns null where hard links are
+     * not supported.
+     */
+    private Path linkForSendfile(Path file) throws IOException {
+        Path link = directory.resolve(file.getFileName() + "." + UUID.randomUUID() + ".send");
+        try {
+            Files.createLink(link, file);
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            if (e instanceof NoSuchFileException missing) {
+                throw missing;
+            }
+            return null;
+        }
+        sendfileLinks.add(new SendfileLink(link, System.currentTimeMillis() + sendfileGraceMillis));
+        return link;
+    }
+
+    @Scheduled(fixedDelayString = "${app.reports.cache.sendfile-grace-ms:60000}")
+    public void purgeSendfileLinks() {
+        long now = System.currentTimeMillis();
+        SendfileLink link;
+        while ((link = sendfileLinks.peek()) != null && link.deleteAt <= now) {
+            sendfileLinks.poll();
+            delete(link.path);
+        }
+    }
+
+    private void store(String key, Path partial) throws IOException {
+        long size = Files.size(partial);
+        if (size > maxBytes) {
+            delete(partial);
+            return;
+        }
+        Path file = directory.resolve(key);
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        synchronized (entries) {
+            Entry previous = entries.put(key, new Entry(file, size));
+            if (previous != null) {
+                totalBytes -= previous.size;
+            }
+            totalBytes += size;
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<String, Entry> evicted = eldest.next();
+                if (evicted.getKey().equals(key)) {
+                    continue;
+                }
+                eldest.remove();
+                totalBytes -= evicted.getValue().size;
+                delete(evicted.getValue().file);
+            }
+        }
+    }
+
+    private void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete cached report {}", file, e);
+        }
+    }
+
+    private static final class Entry {
+        private final Path file;
+        private final long size;
+
+        private Entry(Path file, long size) {
+            this.file = file;
+            this.size = size;
+        }
+    }
+
+    private static final class SendfileLink {
+        private final Path path;
+        private final long deleteAt;
+
+        private SendfileLink(Path path, long deleteAt) {
+            this.path = path;
+            this.deleteAt = deleteAt;
+        }
+    }
+
+    private static final class TeeOutputStream extends FilterOutputStream {
+        private final OutputStream copy;
+
+        private TeeOutputStream(OutputStream out, OutputStream copy) {
+            super(out);
+            this.copy = copy;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            copy.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            copy.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+            copy.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
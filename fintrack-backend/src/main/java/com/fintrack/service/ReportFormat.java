@@ -0,0 +1,34 @@
+package com.fintrack.service;
+
+import com.fintrack.exceptions.InvalidRequestException;
+
+public enum ReportFormat {
+    CSV("text/csv;charset=UTF-8", "csv"),
+    PDF("application/pdf", "pdf"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ReportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ReportFormat fromValue(String value) {
+        for (ReportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new InvalidRequestException("Unsupported report format: " + value);
+    }
+}
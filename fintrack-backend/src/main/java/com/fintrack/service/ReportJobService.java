@@ -0,0 +1,243 @@
+package com.fintrack.service;
+
+import com.fintrack.dto.ReportFilter;
+import com.fintrack.dto.ReportJobResponse;
+import com.fintrack.exceptions.InvalidRequestException;
+import com.fintrack.exceptions.ResourceNotFoundException;
+import com.fintrack.exceptions.TooManyRequestsException;
+import com.fintrack.security.AuthenticatedUser;
+import com.fintrack.utils.SecurityUtils;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs report exports off the request threads. Jobs go through a small bounded executor with a
+ * per-user cap on queued and running jobs, are spooled to a temp directory, and are removed
+ * together with their files once they are older than the configured TTL.
+ */
+@Service
+public class ReportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportJobService.class);
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final ReportService reportService;
+    private final Path spoolDir;
+    private final int maxActivePerUser;
+    private final long ttlMillis;
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentMap<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, AtomicInteger> activeByUser = new ConcurrentHashMap<>();
+
+    public ReportJobService(ReportService reportService,
+                            @Value("${app.reports.jobs.spool-dir:${java.io.tmpdir}/fintrack-reports}") String spoolDir,
+                            @Value("${app.reports.jobs.threads:2}") int threads,
+                            @Value("${app.reports.jobs.queue-capacity:50}") int queueCapacity,
+                            @Value("${app.reports.jobs.max-active-per-user:2}") int maxActivePerUser,
+                            @Value("${app.reports.jobs.ttl-ms:3600000}") long ttlMillis) throws IOException {
+        this.reportService = reportService;
+        this.spoolDir = Paths.get(spoolDir);
+        this.maxActivePerUser = maxActivePerUser;
+        this.ttlMillis = ttlMillis;
+        Files.createDirectories(this.spoolDir);
+        clearSpool();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public ReportJobResponse submit(String format, ReportFilter filter) {
+        ReportFormat reportFormat = ReportFormat.fromValue(format);
+        Long userId = currentUserId();
+        AtomicInteger active = activeByUser.computeIfAbsent(userId, id -> new AtomicInteger());
+        if (active.incrementAndGet() > maxActivePerUser) {
+            active.decrementAndGet();
+            throw new TooManyRequestsException("Too many report jobs in progress");
+        }
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), userId, reportFormat, filter);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            active.decrementAndGet();
+            throw new TooManyRequestsException("Report queue is full, try again later");
+        }
+        return toResponse(job);
+    }
+
+    public ReportJobResponse getJob(String jobId) {
+        return toResponse(findOwnJob(jobId));
+    }
+
+    public SpooledReport getDownload(String jobId) {
+        ReportJob job = findOwnJob(jobId);
+        if (job.status != Status.COMPLETED) {
+            throw new InvalidRequestException("Report job is not ready");
+        }
+        return new SpooledReport(job.file, job.format);
+    }
+
+    @Scheduled(fixedDelayString = "${app.reports.jobs.cleanup-interval-ms:60000}")
+    public void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - ttlMillis;
+        Iterator<ReportJob> iterator = jobs.values().iterator();
+        while (iterator.hasNext()) {
+            ReportJob job = iterator.next();
+            if (job.finishedAt > 0 && job.finishedAt < cutoff) {
+                iterator.remove();
+                deleteQuietly(job.file);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(ReportJob job) {
+        job.status = Status.RUNNING;
+        Path partial = spoolDir.resolve(job.id + ".part");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial))) {
+                if (job.format == ReportFormat.CSV) {
+                    reportService.writeCsvReport(job.userId, job.filter, out);
+                } else if (job.format == ReportFormat.NDJSON) {
+                    reportService.writeNdjsonReport(job.userId, job.filter, out);
+                } else {
+                    reportService.writeLargePdfReport(job.userId, job.filter, out);
+                }
+            }
+            Path file = spoolDir.resolve(job.id + "." + job.format.getExtension());
+            Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE);
+            job.file = file;
+            job.status = Status.COMPLETED;
+        } catch (Exception e) {
+            log.warn("Report job {} failed", job.id, e);
+            deleteQuietly(partial);
+            job.error = "Report generation failed";
+            job.status = Status.FAILED;
+        } finally {
+            job.completedAt = LocalDateTime.now();
+            job.finishedAt = System.currentTimeMillis();
+            activeByUser.get(job.userId).decrementAndGet();
+        }
+    }
+
+    private ReportJob findOwnJob(String jobId) {
+        ReportJob job = jobs.get(jobId);
+        if (job == null || !job.userId.equals(currentUserId())) {
+            throw new ResourceNotFoundException("Report job not found");
+        }
+        return job;
+    }
+
+    private ReportJobResponse toResponse(ReportJob job) {
+        return new ReportJobResponse(
+                job.id,
+                job.format.name(),
+                job.status.name(),
+                job.createdAt,
+                job.completedAt,
+                job.error);
+    }
+
+    private void clearSpool() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolDir)) {
+            for (Path file : files) {
+                deleteQuietly(file);
+            }
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled report {}", file, e);
+        }
+    }
+
+    private Long currentUserId() {
+        AuthenticatedUser principal = SecurityUtils.getCurrentUser();
+        if (principal == null) {
+            throw new ResourceNotFoundException("Authenticated user not found");
+        }
+        return principal.getId();
+    }
+
+    public static final class SpooledReport {
+        private final Path file;
+        private final ReportFormat format;
+
+        private SpooledReport(Path file, ReportFormat format) {
+            this.file = file;
+            this.format = format;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public ReportFormat getFormat() {
+            return format;
+        }
+    }
+
+    private static final class ReportJob {
+        private final String id;
+        private final Long userId;
+        private final ReportFormat format;
+        private final ReportFilter filter;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private volatile Status status = Status.QUEUED;
+        private volatile Path file;
+        private volatile String error;
+        private volatile LocalDateTime completedAt;
+        private volatile long finishedAt;
+
+        private ReportJob(String id, Long userId, ReportFormat format, ReportFilter filter) {
+            this.id = id;
+            this.userId = userId;
+            this.format = format;
+            this.filter = filter;
+        }
+    }
+}
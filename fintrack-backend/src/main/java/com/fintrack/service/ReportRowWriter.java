@@ -0,0 +1,22 @@
+package com.fintrack.service;
+
+import com.fintrack.dto.ExpenseResponse;
+import com.fintrack.service.aggregation.ReportTotals;
+
+import java.io.IOException;
+import java.util.function.LongFunction;
+
+/**
+ * Serializes report rows for one streaming export format. Writers never close the underlying
+ * stream; {@link #finish()} flushes whatever they buffered.
+ */
+interface ReportRowWriter {
+
+    void start() throws IOException;
+
+    void row(ExpenseResponse expense, String categoryName) throws IOException;
+
+    void summary(ReportTotals totals, LongFunction<String> categoryNames) throws IOException;
+
+    void finish() throws IOException;
+}
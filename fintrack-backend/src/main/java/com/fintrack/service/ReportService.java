@@ -1,66 +1,116 @@
 package com.fintrack.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintrack.dto.ExpenseResponse;
+import com.fintrack.dto.ReportFilter;
 import com.fintrack.exceptions.ResourceNotFoundException;
-import com.fintrack.model.Expense;
 import com.fintrack.model.User;
-import com.fintrack.repository.CategoryRepository;
 import com.fintrack.repository.ExpenseRepository;
 import com.fintrack.repository.UserRepository;
+import com.fintrack.security.AuthenticatedUser;
+import com.fintrack.service.aggregation.Cents;
+import com.fintrack.service.aggregation.ReportTotals;
+import com.fintrack.utils.PdfPageSubtotals;
 import com.fintrack.utils.SecurityUtils;
 import com.itextpdf.text.Document;
 import com.itextpdf.text.DocumentException;
 import com.itextpdf.text.Font;
 import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.Phrase;
 import com.itextpdf.text.pdf.PdfPCell;
 import com.itextpdf.text.pdf.PdfPTable;
 import com.itextpdf.text.pdf.PdfWriter;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.io.PrintWriter;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 public class ReportService {
 
     private final ExpenseRepository expenseRepository;
-    private final CategoryRepository categoryRepository;
+    private final CategoryDictionary categoryDictionary;
     private final UserRepository userRepository;
+    private final ReportCache reportCache;
+    private final ObjectMapper objectMapper;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final int PDF_FLUSH_ROWS = 500;
 
     public ReportService(ExpenseRepository expenseRepository,
-                         CategoryRepository categoryRepository,
-                         UserRepository userRepository) {
+                         CategoryDictionary categoryDictionary,
+                         UserRepository userRepository,
+                         ReportCache reportCache,
+                         ObjectMapper objectMapper) {
         this.expenseRepository = expenseRepository;
-        this.categoryRepository = categoryRepository;
+        this.categoryDictionary = categoryDictionary;
         this.userRepository = userRepository;
+        this.reportCache = reportCache;
+        this.objectMapper = objectMapper;
     }
 
-    public ByteArrayInputStream generateCsvReport() {
-        User user = getCurrentUser();
-        List<Expense> expenses = expenseRepository.findAllByUser(user);
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        PrintWriter writer = new PrintWriter(out);
-        writer.println("Date,Category,Amount,Payment Mode,Description");
-        for (Expense expense : expenses) {
-            writer.printf("%s,%s,%s,%s,%s%n",
-                    expense.getDate().format(DATE_FORMATTER),
-                    resolveCategory(expense.getCategoryId()),
-                    expense.getAmount(),
-                    expense.getPaymentMode(),
-                    sanitize(expense.getDescription()));
+    public String cacheKey(ReportFormat format, String variant, ReportFilter filter) {
+        return reportCache.key(currentUserId(), format, variant + "|" + describe(filter));
+    }
+
+    /**
+     * Streams the CSV report to {@code out} row by row from a forward-only cursor. Each row is
+     * detached once written so the persistence context stays empty regardless of history size.
+     */
+    @Transactional(readOnly = true)
+    public void writeCsvReport(ReportFilter filter, OutputStream out) throws IOException {
+        writeRows(getCurrentUser(), filter, new CsvReportRowWriter(out));
+    }
+
+    @Transactional(readOnly = true)
+    public void writeCsvReport(Long userId, ReportFilter filter, OutputStream out) throws IOException {
+        writeRows(userRepository.getReferenceById(userId), filter, new CsvReportRowWriter(out));
+    }
+
+    @Transactional(readOnly = true)
+    public void writeNdjsonReport(ReportFilter filter, OutputStream out) throws IOException {
+        writeRows(getCurrentUser(), filter, new NdjsonReportRowWriter(objectMapper.getFactory(), out));
+    }
+
+    @Transactional(readOnly = true)
+    public void writeNdjsonReport(Long userId, ReportFilter filter, OutputStream out) throws IOException {
+        writeRows(userRepository.getReferenceById(userId), filter,
+                new NdjsonReportRowWriter(objectMapper.getFactory(), out));
+    }
+
+    private void writeRows(User user, ReportFilter filter, ReportRowWriter writer) throws IOException {
+        CategoryDictionary.CategoryNames categoryNames = categoryDictionary.forUser(user.getId());
+        ReportTotals totals = filter.isSummary() ? new ReportTotals() : null;
+        writer.start();
+        try (Stream<ExpenseResponse> expenses = expenseRepository.streamFiltered(user, filter)) {
+            Iterator<ExpenseResponse> rows = expenses.iterator();
+            while (rows.hasNext()) {
+                ExpenseResponse expense = rows.next();
+                writer.row(expense, categoryNames.nameOf(expense.getCategoryId()));
+                if (totals != null) {
+                    totals.add(expense.getDate(), expense.getCategoryId(), Cents.of(expense.getAmount()));
+                }
+            }
         }
-        writer.flush();
-        return new ByteArrayInputStream(out.toByteArray());
+        if (totals != null) {
+            writer.summary(totals, categoryNames::nameOf);
+        }
+        writer.finish();
     }
 
-    public ByteArrayInputStream generatePdfReport() {
+    @Transactional(readOnly = true)
+    public ByteArrayInputStream generatePdfReport(ReportFilter filter) {
         User user = getCurrentUser();
-        List<Expense> expenses = expenseRepository.findAllByUser(user);
+        CategoryDictionary.CategoryNames categoryNames = categoryDictionary.forUser(user.getId());
+        ReportTotals totals = filter.isSummary() ? new ReportTotals() : null;
         Document document = new Document();
         ByteArrayOutputStream out = new ByteArrayOutputStream();
         try {
@@ -75,14 +125,24 @@ public class ReportService {
             addHeader(table, "Amount");
             addHeader(table, "Payment Mode");
             addHeader(table, "Description");
-            for (Expense expense : expenses) {
-                table.addCell(expense.getDate().format(DATE_FORMATTER));
-                table.addCell(resolveCategory(expense.getCategoryId()));
-                table.addCell(formatAmount(expense.getAmount()));
-                table.addCell(expense.getPaymentMode());
-                table.addCell(expense.getDescription() == null ? "" : expense.getDescription());
+            try (Stream<ExpenseResponse> expenses = expenseRepository.streamFiltered(user, filter)) {
+                Iterator<ExpenseResponse> rows = expenses.iterator();
+                while (rows.hasNext()) {
+                    ExpenseResponse expense = rows.next();
+                    table.addCell(expense.getDate().format(DATE_FORMATTER));
+                    table.addCell(categoryNames.nameOf(expense.getCategoryId()));
+                    table.addCell(formatAmount(expense.getAmount()));
+                    table.addCell(expense.getPaymentMode());
+                    table.addCell(expense.getDescription() == null ? "" : expense.getDescription());
+                    if (totals != null) {
+                        totals.add(expense.getDate(), expense.getCategoryId(), Cents.of(expense.getAmount()));
+                    }
+                }
             }
             document.add(table);
+            if (totals != null) {
+                addSummary(document, totals, categoryNames);
+            }
             document.close();
         } catch (DocumentException e) {
             throw new RuntimeException("Failed to create PDF report", e);
@@ -90,6 +150,121 @@ public class ReportService {
         return new ByteArrayInputStream(out.toByteArray());
     }
 
+    /**
+     * Large-report variant of {@link #generatePdfReport}: rows come from a cursor and the table
+     * is flushed to {@code out} in fixed-size chunks, so memory stays flat with row
+     * count. The header row repeats on each page and each page ends with its subtotal.
+     */
+    @Transactional(readOnly = true)
+    public void writeLargePdfReport(ReportFilter filter, OutputStream out) throws IOException {
+        writeLargePdf(getCurrentUser(), filter, out);
+    }
+
+    @Transactional(readOnly = true)
+    public void writeLargePdfReport(Long userId, ReportFilter filter, OutputStream out) throws IOException {
+        writeLargePdf(userRepository.getReferenceById(userId), filter, out);
+    }
+
+    private void writeLargePdf(User user, ReportFilter filter, OutputStream out) throws IOException {
+        CategoryDictionary.CategoryNames categoryNames = categoryDictionary.forUser(user.getId());
+        ReportTotals totals = filter.isSummary() ? new ReportTotals() : null;
+        Document document = new Document();
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            PdfPageSubtotals subtotals = new PdfPageSubtotals();
+            writer.setPageEvent(subtotals);
+            document.open();
+            Font titleFont = new Font(Font.FontFamily.HELVETICA, 16, Font.BOLD);
+            document.add(new Paragraph("Expense Report", titleFont));
+            document.add(new Paragraph(" "));
+            PdfPTable table = new PdfPTable(5);
+            table.setComplete(false);
+            table.setHeaderRows(1);
+            // a split row would leave its amount on one page and its page subtotal on the other
+            table.setSplitRows(false);
+            addHeader(table, "Date");
+            addHeader(table, "Category");
+            addHeader(table, "Amount");
+            addHeader(table, "Payment Mode");
+            addHeader(table, "Description");
+            int pending = 0;
+            try (Stream<ExpenseResponse> expenses = expenseRepository.streamFiltered(user, filter)) {
+                Iterator<ExpenseResponse> rows = expenses.iterator();
+                while (rows.hasNext()) {
+                    ExpenseResponse expense = rows.next();
+                    long cents = Cents.of(expense.getAmount());
+                    table.addCell(expense.getDate().format(DATE_FORMATTER));
+                    table.addCell(categoryNames.nameOf(expense.getCategoryId()));
+                    table.addCell(subtotals.track(new PdfPCell(new Phrase(formatAmount(expense.getAmount()))), cents));
+                    table.addCell(expense.getPaymentMode());
+                    table.addCell(expense.getDescription() == null ? "" : expense.getDescription());
+                    if (totals != null) {
+                        totals.add(expense.getDate(), expense.getCategoryId(), cents);
+                    }
+                    if (++pending == PDF_FLUSH_ROWS) {
+                        document.add(table);
+                        pending = 0;
+                    }
+                }
+            }
+            table.setComplete(true);
+            document.add(table);
+            if (totals != null) {
+                addSummary(document, totals, categoryNames);
+            }
+            document.close();
+        } catch (DocumentException e) {
+            throw new RuntimeException("Failed to create PDF report", e);
+        }
+        out.flush();
+    }
+
+    private void addSummary(Document document,
+                            ReportTotals totals,
+                            CategoryDictionary.CategoryNames categoryNames) throws DocumentException {
+        Font headingFont = new Font(Font.FontFamily.HELVETICA, 13, Font.BOLD);
+        document.add(new Paragraph(" "));
+        document.add(new Paragraph("Summary", headingFont));
+        document.add(new Paragraph(" "));
+        PdfPTable byCategory = new PdfPTable(2);
+        addHeader(byCategory, "Category");
+        addHeader(byCategory, "Total");
+        for (int index : totals.categories().indexesByCentsDescending()) {
+            byCategory.addCell(categoryNames.nameOf(totals.categories().categoryId(index)));
+            byCategory.addCell(Cents.toAmount(totals.categories().cents(index)).toPlainString());
+        }
+        document.add(byCategory);
+        document.add(new Paragraph(" "));
+        PdfPTable byMonth = new PdfPTable(2);
+        addHeader(byMonth, "Month");
+        addHeader(byMonth, "Total");
+        for (int i = 0; i < totals.monthCount(); i++) {
+            byMonth.addCell(totals.month(i).toString());
+            byMonth.addCell(Cents.toAmount(totals.monthCents(i)).toPlainString());
+        }
+        document.add(byMonth);
+        document.add(new Paragraph(" "));
+        document.add(new Paragraph("Grand total: " + Cents.toAmount(totals.totalCents()).toPlainString()
+                + " (" + totals.count() + " expenses)", headingFont));
+    }
+
+    private String describe(ReportFilter filter) {
+        List<Long> categoryIds = filter.getCategoryIds() == null
+                ? List.of()
+                : filter.getCategoryIds().stream().sorted().distinct().toList();
+        return "from=" + filter.getFrom()
+                + "|to=" + filter.getTo()
+                + "|categories=" + categoryIds
+                + "|paymentMode=" + filter.getPaymentMode()
+                + "|min=" + canonical(filter.getMinAmount())
+                + "|max=" + canonical(filter.getMaxAmount())
+                + "|summary=" + filter.isSummary();
+    }
+
+    private String canonical(BigDecimal amount) {
+        return amount == null ? null : amount.stripTrailingZeros().toPlainString();
+    }
+
     private void addHeader(PdfPTable table, String text) {
         PdfPCell header = new PdfPCell();
         header.setPhrase(new Paragraph(text));
@@ -100,26 +275,16 @@ public class ReportService {
         return amount.setScale(2, RoundingMode.HALF_UP).toString();
     }
 
-    private String resolveCategory(Long categoryId) {
-        return categoryRepository.findById(categoryId)
-                .map(category -> category.getName())
-                .orElse("Unknown");
-    }
-
-    private String sanitize(String value) {
-        if (value == null) {
-            return "";
-        }
-        return value.replace(",", " ");
+    private User getCurrentUser() {
+        return userRepository.getReferenceById(currentUserId());
     }
 
-    private User getCurrentUser() {
-        String email = SecurityUtils.getCurrentUserEmail();
-        if (email == null) {
+    private Long currentUserId() {
+        AuthenticatedUser principal = SecurityUtils.getCurrentUser();
+        if (principal == null) {
             throw new ResourceNotFoundException("Authenticated user not found");
         }
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        return principal.getId();
     }
 }
 
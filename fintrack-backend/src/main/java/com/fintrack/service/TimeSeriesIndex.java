@@ -0,0 +1,78 @@
+package com.fintrack.service;
+
+import com.fintrack.model.User;
+import com.fintrack.repository.DailyTotal;
+import com.fintrack.repository.ExpenseRepository;
+import com.fintrack.service.aggregation.Cents;
+import com.fintrack.service.aggregation.PrefixSumSeries;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-user prefix-summed daily spend. A series is built from one GROUP BY date query and kept
+ * until the user's data version changes; the next lookup after a write rebuilds it.
+ */
+@Component
+public class TimeSeriesIndex {
+
+    private final ExpenseRepository expenseRepository;
+    private final DataVersionTracker dataVersions;
+    private final Map<Long, CachedSeries> series;
+
+    public TimeSeriesIndex(ExpenseRepository expenseRepository,
+                           DataVersionTracker dataVersions,
+                           @Value("${app.analytics.series.max-users:1000}") int maxUsers) {
+        this.expenseRepository = expenseRepository;
+        this.dataVersions = dataVersions;
+        this.series = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedSeries> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    public PrefixSumSeries get(User user) {
+        long version = dataVersions.current(user.getId());
+        synchronized (series) {
+            CachedSeries entry = series.get(user.getId());
+            if (entry != null && entry.version == version) {
+                return entry.series;
+            }
+        }
+        PrefixSumSeries built = build(user);
+        synchronized (series) {
+            series.put(user.getId(), new CachedSeries(built, version));
+        }
+        return built;
+    }
+
+    private PrefixSumSeries build(User user) {
+        List<DailyTotal> rows = expenseRepository.sumByDayForUser(user);
+        if (rows.isEmpty()) {
+            return PrefixSumSeries.empty();
+        }
+        LocalDate first = rows.get(0).getExpenseDate();
+        LocalDate last = rows.get(rows.size() - 1).getExpenseDate();
+        long[] daily = new long[(int) (last.toEpochDay() - first.toEpochDay() + 1)];
+        for (DailyTotal row : rows) {
+            daily[(int) (row.getExpenseDate().toEpochDay() - first.toEpochDay())] += Cents.of(row.getTotal());
+        }
+        return PrefixSumSeries.of(first, daily);
+    }
+
+    private static final class CachedSeries {
+        private final PrefixSumSeries series;
+        private final long version;
+
+        private CachedSeries(PrefixSumSeries series, long version) {
+            this.series = series;
+            this.version = version;
+        }
+    }
+}
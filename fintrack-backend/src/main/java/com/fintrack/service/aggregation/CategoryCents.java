@@ -0,0 +1,97 @@
+package com.fintrack.service.aggregation;
+
+import java.util.Arrays;
+
+/**
+ * Per-category totals. Category ids are mapped to dense indexes through an open-addressing
+ * table, so accumulation does not box ids or allocate per row.
+ */
+public final class CategoryCents {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] tableKeys = newTable(16);
+    private int[] tableIndexes = new int[16];
+    private long[] categoryIds = new long[8];
+    private long[] cents = new long[8];
+    private int size;
+
+    public void add(long categoryId, long amountCents) {
+        cents[indexOf(categoryId)] += amountCents;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long categoryId(int index) {
+        return categoryIds[index];
+    }
+
+    public long cents(int index) {
+        return cents[index];
+    }
+
+    public int[] indexesByCentsDescending() {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(cents[b], cents[a]));
+        int[] indexes = new int[size];
+        for (int i = 0; i < size; i++) {
+            indexes[i] = order[i];
+        }
+        return indexes;
+    }
+
+    private int indexOf(long categoryId) {
+        int mask = tableKeys.length - 1;
+        int slot = hash(categoryId) & mask;
+        while (tableKeys[slot] != EMPTY) {
+            if (tableKeys[slot] == categoryId) {
+                return tableIndexes[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size == categoryIds.length) {
+            categoryIds = Arrays.copyOf(categoryIds, size * 2);
+            cents = Arrays.copyOf(cents, size * 2);
+        }
+        int index = size++;
+        categoryIds[index] = categoryId;
+        tableKeys[slot] = categoryId;
+        tableIndexes[slot] = index;
+        if (size * 2 > tableKeys.length) {
+            rehash(tableKeys.length * 2);
+        }
+        return index;
+    }
+
+    private void rehash(int capacity) {
+        long[] keys = newTable(capacity);
+        int[] indexes = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = hash(categoryIds[i]) & mask;
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = categoryIds[i];
+            indexes[slot] = i;
+        }
+        tableKeys = keys;
+        tableIndexes = indexes;
+    }
+
+    private static long[] newTable(int capacity) {
+        long[] keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        return keys;
+    }
+
+    private static int hash(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,20 @@
+package com.fintrack.service.aggregation;
+
+import java.math.BigDecimal;
+
+/**
+ * Conversions between stored amounts (DECIMAL with scale 2) and whole cents.
+ */
+public final class Cents {
+
+    private Cents() {
+    }
+
+    public static long of(BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+
+    public static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
@@ -0,0 +1,43 @@
+package com.fintrack.service.aggregation;
+
+import com.fintrack.dto.TrendPointResponse;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-day totals for a fixed window, indexed by epoch day.
+ */
+public final class DailyCents {
+
+    private final long firstDay;
+    private final long[] cents;
+    private final boolean[] present;
+
+    public DailyCents(LocalDate first, LocalDate last) {
+        this.firstDay = first.toEpochDay();
+        int days = (int) Math.max(0, last.toEpochDay() - firstDay + 1);
+        this.cents = new long[days];
+        this.present = new boolean[days];
+    }
+
+    public void add(LocalDate date, long amountCents) {
+        long index = date.toEpochDay() - firstDay;
+        if (index < 0 || index >= cents.length) {
+            return;
+        }
+        cents[(int) index] += amountCents;
+        present[(int) index] = true;
+    }
+
+    public List<TrendPointResponse> toTrendPoints() {
+        List<TrendPointResponse> points = new ArrayList<>();
+        for (int i = 0; i < cents.length; i++) {
+            if (present[i]) {
+                points.add(new TrendPointResponse(LocalDate.ofEpochDay(firstDay + i), Cents.toAmount(cents[i])));
+            }
+        }
+        return points;
+    }
+}
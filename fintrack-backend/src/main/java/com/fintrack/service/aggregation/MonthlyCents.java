@@ -0,0 +1,53 @@
+package com.fintrack.service.aggregation;
+
+import com.fintrack.dto.MonthlySummaryResponse;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-month totals for a fixed window, indexed by month offset from the first month.
+ */
+public final class MonthlyCents {
+
+    private final int firstMonth;
+    private final long[] cents;
+    private final boolean[] present;
+
+    public MonthlyCents(YearMonth first, YearMonth last) {
+        this.firstMonth = monthNumber(first.getYear(), first.getMonthValue());
+        int months = Math.max(0, monthNumber(last.getYear(), last.getMonthValue()) - firstMonth + 1);
+        this.cents = new long[months];
+        this.present = new boolean[months];
+    }
+
+    public void add(LocalDate date, long amountCents) {
+        add(date.getYear(), date.getMonthValue(), amountCents);
+    }
+
+    public void add(int year, int month, long amountCents) {
+        int index = monthNumber(year, month) - firstMonth;
+        if (index < 0 || index >= cents.length) {
+            return;
+        }
+        cents[index] += amountCents;
+        present[index] = true;
+    }
+
+    public List<MonthlySummaryResponse> toMonthlySummaries() {
+        List<MonthlySummaryResponse> summaries = new ArrayList<>();
+        for (int i = 0; i < cents.length; i++) {
+            if (present[i]) {
+                int number = firstMonth + i;
+                summaries.add(new MonthlySummaryResponse(number / 12, number % 12 + 1, Cents.toAmount(cents[i])));
+            }
+        }
+        return summaries;
+    }
+
+    private static int monthNumber(int year, int month) {
+        return year * 12 + month - 1;
+    }
+}
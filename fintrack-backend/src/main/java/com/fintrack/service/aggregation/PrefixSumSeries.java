@@ -0,0 +1,53 @@
+package com.fintrack.service.aggregation;
+
+import java.time.LocalDate;
+
+/**
+ * Daily totals stored as running sums, so the total of any date range is a single subtraction.
+ */
+public final class PrefixSumSeries {
+
+    private final long firstDay;
+    private final long[] prefix;
+
+    private PrefixSumSeries(long firstDay, long[] prefix) {
+        this.firstDay = firstDay;
+        this.prefix = prefix;
+    }
+
+    public static PrefixSumSeries empty() {
+        return new PrefixSumSeries(0, new long[1]);
+    }
+
+    /**
+     * @param first      first day covered by the series
+     * @param dailyCents totals per day, where index 0 is {@code first}
+     */
+    public static PrefixSumSeries of(LocalDate first, long[] dailyCents) {
+        long[] prefix = new long[dailyCents.length + 1];
+        for (int i = 0; i < dailyCents.length; i++) {
+            prefix[i + 1] = prefix[i] + dailyCents[i];
+        }
+        return new PrefixSumSeries(first.toEpochDay(), prefix);
+    }
+
+    /**
+     * Total in cents between {@code from} and {@code to}, both inclusive. Days outside the series count as zero.
+     */
+    public long sum(LocalDate from, LocalDate to) {
+        int start = clamp(from.toEpochDay() - firstDay);
+        int end = clamp(to.toEpochDay() - firstDay + 1);
+        return end > start ? prefix[end] - prefix[start] : 0L;
+    }
+
+    public int days() {
+        return prefix.length - 1;
+    }
+
+    private int clamp(long offset) {
+        if (offset < 0) {
+            return 0;
+        }
+        return (int) Math.min(offset, prefix.length - 1);
+    }
+}
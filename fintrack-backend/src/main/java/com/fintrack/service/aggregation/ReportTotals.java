@@ -0,0 +1,74 @@
+package com.fintrack.service.aggregation;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+
+/**
+ * Summary totals collected while report rows are written: per category, per month and overall.
+ * Rows are expected in date order, so a new month is normally an append.
+ */
+public final class ReportTotals {
+
+    private final CategoryCents categories = new CategoryCents();
+    private int[] monthKeys = new int[16];
+    private long[] monthCents = new long[16];
+    private int months;
+    private long totalCents;
+    private long count;
+
+    public void add(LocalDate date, long categoryId, long cents) {
+        categories.add(categoryId, cents);
+        monthCents[monthIndex(date.getYear() * 100 + date.getMonthValue())] += cents;
+        totalCents += cents;
+        count++;
+    }
+
+    public CategoryCents categories() {
+        return categories;
+    }
+
+    public int monthCount() {
+        return months;
+    }
+
+    public YearMonth month(int index) {
+        int key = monthKeys[index];
+        return YearMonth.of(key / 100, key % 100);
+    }
+
+    public long monthCents(int index) {
+        return monthCents[index];
+    }
+
+    public long totalCents() {
+        return totalCents;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    private int monthIndex(int key) {
+        if (months > 0 && monthKeys[months - 1] == key) {
+            return months - 1;
+        }
+        int index = months > 0 && monthKeys[months - 1] < key
+                ? -(months + 1)
+                : Arrays.binarySearch(monthKeys, 0, months, key);
+        if (index >= 0) {
+            return index;
+        }
+        int insertAt = -(index + 1);
+        if (months == monthKeys.length) {
+            monthKeys = Arrays.copyOf(monthKeys, months * 2);
+            monthCents = Arrays.copyOf(monthCents, months * 2);
+        }
+        System.arraycopy(monthKeys, insertAt, monthKeys, insertAt + 1, months - insertAt);
+        System.arraycopy(monthCents, insertAt, monthCents, insertAt + 1, months - insertAt);
+        monthKeys[insertAt] = key;
+        monthCents[insertAt] = 0;
+        months++;
+        return insertAt;
+    }
+}
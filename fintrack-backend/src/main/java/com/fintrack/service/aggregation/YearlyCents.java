@@ -0,0 +1,42 @@
+package com.fintrack.service.aggregation;
+
+import com.fintrack.dto.YearlySummaryResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-year totals for a fixed window, indexed by year offset from the first year.
+ */
+public final class YearlyCents {
+
+    private final int firstYear;
+    private final long[] cents;
+    private final boolean[] present;
+
+    public YearlyCents(int firstYear, int lastYear) {
+        this.firstYear = firstYear;
+        int years = Math.max(0, lastYear - firstYear + 1);
+        this.cents = new long[years];
+        this.present = new boolean[years];
+    }
+
+    public void add(int year, long amountCents) {
+        int index = year - firstYear;
+        if (index < 0 || index >= cents.length) {
+            return;
+        }
+        cents[index] += amountCents;
+        present[index] = true;
+    }
+
+    public List<YearlySummaryResponse> toYearlySummaries() {
+        List<YearlySummaryResponse> summaries = new ArrayList<>();
+        for (int i = 0; i < cents.length; i++) {
+            if (present[i]) {
+                summaries.add(new YearlySummaryResponse(firstYear + i, Cents.toAmount(cents[i])));
+            }
+        }
+        return summaries;
+    }
+}
@@ -0,0 +1,64 @@
+package com.fintrack.utils;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.Element;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.Phrase;
+import com.itextpdf.text.Rectangle;
+import com.itextpdf.text.pdf.ColumnText;
+import com.itextpdf.text.pdf.PdfContentByte;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfPCellEvent;
+import com.itextpdf.text.pdf.PdfPageEventHelper;
+import com.itextpdf.text.pdf.PdfWriter;
+
+import java.math.BigDecimal;
+
+/**
+ * Accumulates the amounts of the cells actually laid out on the current page and prints the
+ * page subtotal in the footer when the page ends. Amount cells opt in through {@link #track}.
+ * A row that iText splits over a page break lays its cells out once per fragment, so each amount
+ * is only counted on the first page it appears on; tables should still keep rows whole with
+ * {@code setSplitRows(false)} so the amount lands on the page it is counted for.
+ */
+public class PdfPageSubtotals extends PdfPageEventHelper {
+
+    private static final Font FOOTER_FONT = new Font(Font.FontFamily.HELVETICA, 9, Font.BOLD);
+
+    private long pageCents;
+
+    public PdfPCell track(PdfPCell cell, long cents) {
+        cell.setCellEvent(new AmountCellEvent(cents));
+        return cell;
+    }
+
+    @Override
+    public void onEndPage(PdfWriter writer, Document document) {
+        if (pageCents == 0) {
+            return;
+        }
+        Phrase footer = new Phrase("Page subtotal: " + BigDecimal.valueOf(pageCents, 2).toPlainString(), FOOTER_FONT);
+        ColumnText.showTextAligned(writer.getDirectContent(), Element.ALIGN_RIGHT, footer,
+                document.right(), document.bottom() - 18, 0);
+        pageCents = 0;
+    }
+
+    private final class AmountCellEvent implements PdfPCellEvent {
+
+        private final long cents;
+        // split fragments of a row share the cell event
+        private boolean counted;
+
+        private AmountCellEvent(long cents) {
+            this.cents = cents;
+        }
+
+        @Override
+        public void cellLayout(PdfPCell cell, Rectangle position, PdfContentByte[] canvases) {
+            if (!counted) {
+                counted = true;
+                pageCents += cents;
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.fintrack.utils;
 
+import com.fintrack.security.AuthenticatedUser;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -9,12 +10,26 @@ public final class SecurityUtils {
     private SecurityUtils() {
     }
 
+    public static AuthenticatedUser getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user;
+        }
+        return null;
+    }
+
     public static String getCurrentUserEmail() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
             return null;
         }
         Object principal = authentication.getPrincipal();
+        if (principal instanceof AuthenticatedUser user) {
+            return user.getEmail();
+        }
         if (principal instanceof UserDetails userDetails) {
             return userDetails.getUsername();
         }
@@ -24,4 +39,3 @@ public final class SecurityUtils {
         return null;
     }
 }
-
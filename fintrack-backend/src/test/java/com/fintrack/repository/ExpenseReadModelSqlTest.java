@@ -0,0 +1,143 @@
+package com.fintrack.repository;
+
+import com.fintrack.dto.ExpenseResponse;
+import com.fintrack.model.Expense;
+import com.fintrack.model.User;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The expense read paths must select expense columns plus {@code user_id} in a single statement,
+ * without joining or loading {@code users} and without managing any entities.
+ */
+@DataJpaTest
+class ExpenseReadModelSqlTest {
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RecordingStatementInspector statements;
+
+    private User user;
+    private Long expenseId;
+
+    @BeforeEach
+    void setUp() {
+        User owner = new User();
+        owner.setName("Reader");
+        owner.setEmail("reader@example.com");
+        owner.setPassword("password123");
+        Long userId = entityManager.persistAndGetId(owner, Long.class);
+        expenseId = entityManager.persistAndGetId(new Expense(null, owner, 1L, new BigDecimal("12.50"),
+                "Lunch", LocalDate.of(2024, 3, 1), "Cash"), Long.class);
+        entityManager.persist(new Expense(null, owner, 2L, new BigDecimal("40.00"),
+                null, LocalDate.of(2024, 3, 2), "UPI"));
+        entityManager.flush();
+        entityManager.clear();
+        user = entityManager.getEntityManager().getReference(User.class, userId);
+        statements.clear();
+    }
+
+    @Test
+    void pageSelectsExpenseColumnsOnly() {
+        List<ExpenseResponse> rows = expenseRepository.findPage(user, null, null, null, 10);
+
+        assertEquals(2, rows.size());
+        assertEquals(user.getId(), rows.get(0).getUserId());
+        assertSingleExpenseSelect();
+        assertNothingManaged();
+    }
+
+    @Test
+    void detailSelectsExpenseColumnsOnly() {
+        ExpenseResponse row = expenseRepository.findResponseById(expenseId, user.getId()).orElseThrow();
+
+        assertEquals("Lunch", row.getDescription());
+        assertEquals(user.getId(), row.getUserId());
+        assertSingleExpenseSelect();
+        assertNothingManaged();
+    }
+
+    @Test
+    void exportStreamSelectsExpenseColumnsOnly() {
+        try (Stream<ExpenseResponse> rows = expenseRepository.streamFiltered(user, null)) {
+            assertEquals(2, rows.count());
+        }
+        assertSingleExpenseSelect();
+        assertNothingManaged();
+    }
+
+    private void assertSingleExpenseSelect() {
+        List<String> selects = statements.recorded().stream()
+                .map(sql -> sql.toLowerCase(Locale.ROOT))
+                .filter(sql -> sql.startsWith("select"))
+                .collect(Collectors.toList());
+        assertEquals(1, selects.size(), () -> "Expected one select but got " + selects);
+        String sql = selects.get(0);
+        assertTrue(sql.contains("from expenses"), sql);
+        assertTrue(sql.contains("user_id"), sql);
+        assertFalse(sql.contains("users"), sql);
+        assertFalse(sql.contains(" join "), sql);
+    }
+
+    private void assertNothingManaged() {
+        Session session = entityManager.getEntityManager().unwrap(Session.class);
+        assertEquals(0, session.getStatistics().getEntityCount());
+    }
+
+    @TestConfiguration
+    static class InspectorConfig {
+
+        @Bean
+        RecordingStatementInspector recordingStatementInspector() {
+            return new RecordingStatementInspector();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspectorCustomizer(RecordingStatementInspector inspector) {
+            return properties -> properties.put("hibernate.session_factory.statement_inspector", inspector);
+        }
+    }
+
+    static class RecordingStatementInspector implements StatementInspector {
+        private final List<String> sql = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String statement) {
+            sql.add(statement);
+            return statement;
+        }
+
+        List<String> recorded() {
+            return sql;
+        }
+
+        void clear() {
+            sql.clear();
+        }
+    }
+}
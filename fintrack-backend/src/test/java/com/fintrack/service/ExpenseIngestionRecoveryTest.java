@@ -0,0 +1,201 @@
+package com.fintrack.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintrack.dto.ExpenseIngestionResponse;
+import com.fintrack.dto.ExpenseRequest;
+import com.fintrack.model.IdempotencyRecord;
+import com.fintrack.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Recovery from journals left on disk: exactly the expenses without a {@code COMMIT} or a batch
+ * marker are requeued, and the rewritten journal holds only those.
+ */
+class ExpenseIngestionRecoveryTest {
+
+    private static final Long USER_ID = 7L;
+    private static final Long OTHER_USER_ID = 8L;
+    // the service refuses a journal under java.io.tmpdir, so the files live in the build directory
+    private static final Path ROOT = Paths.get("target", "ingestion-recovery-test");
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final IdempotencyRecordRepository recordRepository = mock(IdempotencyRecordRepository.class);
+    private Path directory;
+    private Path journalFile;
+    private ExpenseIngestionService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createDirectories(ROOT.resolve(UUID.randomUUID().toString()));
+        journalFile = directory.resolve("ingest.journal");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (service != null) {
+            service.shutdown();
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    void tornFinalLineIsDropped() throws Exception {
+        try (ExpenseIngestionJournal journal = journal(1L << 20)) {
+            journal.enqueued("a", USER_ID, request("1.00"), LocalDateTime.now());
+            journal.enqueued("b", USER_ID, request("2.00"), LocalDateTime.now());
+            journal.prepared("batch-1", List.of("a", "b"));
+            journal.committed("batch-1");
+            journal.enqueued("c", USER_ID, request("3.00"), LocalDateTime.now());
+        }
+        Files.write(journalFile, "{\"type\":\"ENQ\",\"id\":\"d\",\"us".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        recover();
+
+        assertNull(service.lookup("a"));
+        assertNull(service.lookup("b"));
+        assertQueued("c");
+        assertNull(service.lookup("d"));
+        assertEquals(List.of("c"), journaledIds());
+    }
+
+    @Test
+    void preparedBatchWithMarkerIsCompleted() throws Exception {
+        try (ExpenseIngestionJournal journal = journal(1L << 20)) {
+            journal.enqueued("a", USER_ID, request("1.00"), LocalDateTime.now());
+            journal.enqueued("b", USER_ID, request("2.00"), LocalDateTime.now());
+            journal.enqueued("c", OTHER_USER_ID, request("3.00"), LocalDateTime.now());
+            journal.enqueued("d", USER_ID, request("4.00"), LocalDateTime.now());
+            // an attempt that rolled back, then one that committed before its COMMIT was written
+            journal.prepared("batch-0", List.of("a"));
+            journal.prepared("batch-1", List.of("a", "b", "c"));
+        }
+        marker(USER_ID, "batch-1", Map.of("a", 101L, "b", 102L));
+
+        recover();
+
+        assertCompleted("a", 101L);
+        assertCompleted("b", 102L);
+        assertQueued("c");
+        assertQueued("d");
+        assertEquals(List.of("c", "d"), journaledIds());
+    }
+
+    @Test
+    void recoversFromCompactedJournal() throws Exception {
+        // a threshold of one byte compacts on every COMMIT and FAIL
+        try (ExpenseIngestionJournal journal = journal(1)) {
+            journal.enqueued("a", USER_ID, request("1.00"), LocalDateTime.now());
+            journal.enqueued("b", USER_ID, request("2.00"), LocalDateTime.now());
+            journal.enqueued("c", USER_ID, request("3.00"), LocalDateTime.now());
+            journal.enqueued("d", USER_ID, request("4.00"), LocalDateTime.now());
+            journal.prepared("batch-1", List.of("a", "b"));
+            journal.committed("batch-1");
+            journal.prepared("batch-2", List.of("c", "d"));
+            journal.failed("d");
+        }
+        List<String> types = new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+        for (JsonNode record : records()) {
+            types.add(record.path("type").asText());
+            ids.add(record.path("id").asText(record.path("batch").asText()));
+        }
+        assertEquals(List.of("ENQ", "PREPARE"), types);
+        assertEquals(List.of("c", "batch-2"), ids);
+        marker(USER_ID, "batch-2", Map.of("c", 103L));
+
+        recover();
+
+        assertNull(service.lookup("a"));
+        assertNull(service.lookup("b"));
+        assertCompleted("c", 103L);
+        assertNull(service.lookup("d"));
+        assertEquals(List.of(), journaledIds());
+    }
+
+    private ExpenseIngestionJournal journal(long compactBytes) throws IOException {
+        return new ExpenseIngestionJournal(journalFile, objectMapper, compactBytes);
+    }
+
+    private void recover() throws IOException {
+        service = new ExpenseIngestionService(null, recordRepository, mock(PlatformTransactionManager.class),
+                objectMapper, journalFile.toString(), 1L << 20, 100, 10, 5, 60000);
+        service.recover();
+    }
+
+    private void marker(Long userId, String batchId, Map<String, Long> expenseIds) throws IOException {
+        IdempotencyRecord marker = new IdempotencyRecord(userId, "ingest:" + batchId, "expense-ingestion",
+                Instant.now().plusSeconds(60));
+        marker.setResponseBody(objectMapper.writeValueAsString(expenseIds));
+        when(recordRepository.findByUserIdAndIdempotencyKey(userId, "ingest:" + batchId)).thenReturn(Optional.of(marker));
+    }
+
+    private void assertQueued(String id) {
+        ExpenseIngestionResponse response = service.lookup(id);
+        assertEquals("QUEUED", response.getStatus());
+        assertNull(response.getExpenseId());
+    }
+
+    private void assertCompleted(String id, Long expenseId) {
+        ExpenseIngestionResponse response = service.lookup(id);
+        assertEquals("COMPLETED", response.getStatus());
+        assertEquals(expenseId, response.getExpenseId());
+    }
+
+    private List<String> journaledIds() throws IOException {
+        List<String> ids = new ArrayList<>();
+        for (JsonNode record : records()) {
+            assertEquals("ENQ", record.path("type").asText());
+            ids.add(record.path("id").asText());
+        }
+        return ids;
+    }
+
+    private List<JsonNode> records() throws IOException {
+        List<JsonNode> records = new ArrayList<>();
+        for (String line : Files.readAllLines(journalFile, StandardCharsets.UTF_8)) {
+            records.add(objectMapper.readTree(line));
+        }
+        return records;
+    }
+
+    private static ExpenseRequest request(String amount) {
+        ExpenseRequest request = new ExpenseRequest();
+        request.setCategoryId(1L);
+        request.setAmount(new BigDecimal(amount));
+        request.setDate(LocalDate.of(2024, 3, 1));
+        request.setPaymentMode("CARD");
+        return request;
+    }
+}
@@ -0,0 +1,134 @@
+package com.fintrack.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fintrack.dto.ExpenseResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bytes on the wire and CPU per 100k rows for the streaming export formats. Run with
+ * {@code mvn test -Dtest=ReportFormatBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ReportFormatBenchmarkTest {
+
+    private static final int ROWS = 100_000;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+    private static final String[] PAYMENT_MODES = {"Cash", "Credit Card", "Debit Card", "UPI", "Bank Transfer"};
+    private static final String[] CATEGORIES = {"Food", "Transport", "Shopping", "Bills", "Health", "Travel"};
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Test
+    void compareFormats() throws IOException {
+        List<ExpenseResponse> expenses = sampleExpenses();
+        Result csv = measure(expenses, CsvReportRowWriter::new, false);
+        Result csvGzip = measure(expenses, CsvReportRowWriter::new, true);
+        Result ndjson = measure(expenses, this::ndjsonWriter, false);
+        Result ndjsonGzip = measure(expenses, this::ndjsonWriter, true);
+
+        System.out.printf("%-12s %14s %12s%n", "format", "bytes/100k", "cpu ms/100k");
+        print("csv", csv);
+        print("csv.gz", csvGzip);
+        print("ndjson", ndjson);
+        print("ndjson.gz", ndjsonGzip);
+
+        assertTrue(csvGzip.bytes < csv.bytes);
+        assertTrue(ndjsonGzip.bytes < ndjson.bytes);
+    }
+
+    private ReportRowWriter ndjsonWriter(OutputStream out) {
+        try {
+            return new NdjsonReportRowWriter(jsonFactory, out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Result measure(List<ExpenseResponse> expenses,
+                           Function<OutputStream, ReportRowWriter> writers,
+                           boolean gzip) throws IOException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long bytes = 0;
+        long cpuNanos = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            CountingOutputStream wire = new CountingOutputStream();
+            long start = threads.getCurrentThreadCpuTime();
+            GZIPOutputStream compressed = gzip ? new GZIPOutputStream(wire, 16 * 1024) : null;
+            ReportRowWriter writer = writers.apply(compressed != null ? compressed : wire);
+            writer.start();
+            for (int i = 0; i < expenses.size(); i++) {
+                writer.row(expenses.get(i), CATEGORIES[i % CATEGORIES.length]);
+            }
+            writer.finish();
+            if (compressed != null) {
+                compressed.finish();
+            }
+            long elapsed = threads.getCurrentThreadCpuTime() - start;
+            if (round >= WARMUP_ROUNDS) {
+                bytes = wire.count;
+                cpuNanos += elapsed;
+            }
+        }
+        return new Result(bytes, cpuNanos / MEASURED_ROUNDS);
+    }
+
+    private void print(String format, Result result) {
+        System.out.printf("%-12s %14d %12.1f%n", format, result.bytes, result.cpuNanos / 1_000_000.0);
+    }
+
+    private List<ExpenseResponse> sampleExpenses() {
+        List<ExpenseResponse> expenses = new ArrayList<>(ROWS);
+        LocalDate start = LocalDate.of(2015, 1, 1);
+        for (int i = 0; i < ROWS; i++) {
+            expenses.add(new ExpenseResponse(
+                    (long) i + 1,
+                    null,
+                    (long) (i % CATEGORIES.length) + 1,
+                    BigDecimal.valueOf(100 + (i * 7919L) % 500_000, 2),
+                    i % 4 == 0 ? null : "Purchase #" + i + ", paid at store " + (i % 97),
+                    start.plusDays(i / 30),
+                    PAYMENT_MODES[i % PAYMENT_MODES.length],
+                    0L));
+        }
+        return expenses;
+    }
+
+    private static final class Result {
+        private final long bytes;
+        private final long cpuNanos;
+
+        private Result(long bytes, long cpuNanos) {
+            this.bytes = bytes;
+            this.cpuNanos = cpuNanos;
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.fintrack.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Record splitting and line numbering of {@link CsvReader}, and that whatever {@link CsvWriter}
+ * produces reads back field for field.
+ */
+class CsvReaderTest {
+
+    @Test
+    void quotedFieldsKeepLineBreaks() throws IOException {
+        CsvReader reader = reader("a,\"x\ny\",b\r\nc,d\r\n");
+
+        assertEquals(List.of("a", "x\ny", "b"), reader.next());
+        assertEquals(1, reader.line());
+        assertEquals(List.of("c", "d"), reader.next());
+        assertEquals(3, reader.line());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void doubledQuotesAreUnescaped() throws IOException {
+        CsvReader reader = reader("\"say \"\"hi\"\"\",\"\"\"\",z\n");
+
+        assertEquals(List.of("say \"hi\"", "\"", "z"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void crlfAndBareCrEndRecords() throws IOException {
+        CsvReader reader = reader("a,b\r\nc,d\re,f\ng,h");
+
+        assertEquals(List.of("a", "b"), reader.next());
+        assertEquals(1, reader.line());
+        assertEquals(List.of("c", "d"), reader.next());
+        assertEquals(2, reader.line());
+        assertEquals(List.of("e", "f"), reader.next());
+        assertEquals(3, reader.line());
+        assertEquals(List.of("g", "h"), reader.next());
+        assertEquals(4, reader.line());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void blankLinesAreSkippedButCounted() throws IOException {
+        CsvReader reader = reader("\n\r\na,b\n\n\r\nc\n\n");
+
+        assertEquals(List.of("a", "b"), reader.next());
+        assertEquals(3, reader.line());
+        assertEquals(List.of("c"), reader.next());
+        assertEquals(6, reader.line());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void emptyFieldsArePreserved() throws IOException {
+        CsvReader reader = reader(",a,,\n\"\",b\n");
+
+        assertEquals(List.of("", "a", "", ""), reader.next());
+        assertEquals(List.of("", "b"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void unterminatedQuoteFails() {
+        CsvReader reader = reader("a,\"open\nb\n");
+
+        IOException error = assertThrows(IOException.class, reader::next);
+        assertEquals("Unterminated quoted field on line 3", error.getMessage());
+    }
+
+    @Test
+    void readsBackWhatTheWriterWrites() throws IOException {
+        List<List<String>> rows = List.of(
+                List.of("id", "description", "amount"),
+                List.of("1", "plain", "12.50"),
+                List.of("2", "lunch, with tip", "8.00"),
+                List.of("3", "the \"good\" place", "3.25"),
+                List.of("4", "two\r\nlines", "1.00"),
+                List.of("5", "bare\rreturn and\nnewline", "0.10"),
+                List.of("", "", "7"));
+        StringWriter out = new StringWriter();
+        CsvWriter writer = new CsvWriter(out);
+        for (List<String> row : rows) {
+            writer.row(row.toArray(new String[0]));
+        }
+        writer.flush();
+
+        CsvReader reader = reader(out.toString());
+        for (List<String> row : rows) {
+            assertEquals(row, reader.next());
+        }
+        assertNull(reader.next());
+    }
+
+    private static CsvReader reader(String csv) {
+        return new CsvReader(new StringReader(csv));
+    }
+}
@@ -17,18 +17,12 @@ const Analytics = () => {
 
   const loadAnalytics = async () => {
     try {
-      const [monthlyData, yearlyData, categoryData, trendsData, predictedData] = await Promise.all([
-        analyticsService.getMonthlySummary(),
-        analyticsService.getYearlySummary(),
-        analyticsService.getCategorySummary(),
-        analyticsService.getTrends(),
-        analyticsService.getPredictedExpense()
-      ]);
-      setMonthly(monthlyData);
-      setYearly(yearlyData);
-      setByCategory(categoryData);
-      setTrends(trendsData);
-      setPredicted(predictedData);
+      const dashboard = await analyticsService.getDashboard();
+      setMonthly(dashboard.monthlySummary);
+      setYearly(dashboard.yearlySummary);
+      setByCategory(dashboard.categorySummary);
+      setTrends(dashboard.trends);
+      setPredicted(dashboard.predictedExpense);
     } catch (error) {
       console.error('Failed to load analytics:', error);
     } finally {
@@ -1,7 +1,8 @@
 import { useEffect, useState } from 'react';
 import { Link } from 'react-router-dom';
 import { formatINR } from '../currency';
-import { analyticsService, MonthlySummary, CategorySummary, PredictedExpense } from '../services/analyticsService';
+import { analyticsService, PredictedExpense } from '../services/analyticsService';
+import { changeFeedService } from '../services/changeFeedService';
 import { expenseService, Expense } from '../services/expenseService';
 import './Dashboard.css';
 
@@ -16,16 +17,21 @@ const Dashboard = () => {
 
   useEffect(() => {
     loadDashboardData();
+    return changeFeedService.subscribe(() => {
+      loadDashboardData();
+    });
   }, []);
 
   const loadDashboardData = async () => {
     try {
-      const [monthly, category, predictedData, expenses] = await Promise.all([
-        analyticsService.getMonthlySummary(),
-        analyticsService.getCategorySummary(),
-        analyticsService.getPredictedExpense(),
-        expenseService.getAll()
+      const [dashboard, recentPage] = await Promise.all([
+        analyticsService.getDashboard(),
+        expenseService.getPage(null, 5)
       ]);
+      const monthly = dashboard.monthlySummary;
+      const yearly = dashboard.yearlySummary;
+      const category = dashboard.categorySummary;
+      const predictedData = dashboard.predictedExpense;
 
       // Calculate monthly total (current month) - backend returns year and month as numbers
       const now = new Date();
@@ -35,7 +41,6 @@ const Dashboard = () => {
       setMonthlyTotal(Number(currentMonthData?.total ?? 0));
 
       // Calculate yearly total
-      const yearly = await analyticsService.getYearlySummary();
       const currentYearData = yearly.find(y => y.year === currentYear);
       setYearlyTotal(Number(currentYearData?.total ?? 0));
 
@@ -47,7 +52,7 @@ const Dashboard = () => {
       }
 
       setPredicted(predictedData);
-      setRecentExpenses(expenses.slice(0, 5));
+      setRecentExpenses(recentPage.items);
     } catch (error) {
       console.error('Failed to load dashboard data:', error);
     } finally {
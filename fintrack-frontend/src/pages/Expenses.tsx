@@ -7,8 +7,10 @@ import './Expenses.css';
 
 const Expenses = () => {
   const [expenses, setExpenses] = useState<Expense[]>([]);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
   const [categories, setCategories] = useState<Category[]>([]);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
   const navigate = useNavigate();
 
   useEffect(() => {
@@ -17,11 +19,12 @@ const Expenses = () => {
 
   const loadData = async () => {
     try {
-      const [expensesData, categoriesData] = await Promise.all([
-        expenseService.getAll(),
+      const [page, categoriesData] = await Promise.all([
+        expenseService.getPage(),
         categoryService.getAll()
       ]);
-      setExpenses(expensesData);
+      setExpenses(page.items);
+      setNextCursor(page.nextCursor);
       setCategories(categoriesData);
     } catch (error) {
       console.error('Failed to load data:', error);
@@ -30,6 +33,20 @@ const Expenses = () => {
     }
   };
 
+  const loadMore = async () => {
+    if (!nextCursor) return;
+    setLoadingMore(true);
+    try {
+      const page = await expenseService.getPage(nextCursor);
+      setExpenses([...expenses, ...page.items]);
+      setNextCursor(page.nextCursor);
+    } catch (error) {
+      console.error('Failed to load more expenses:', error);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleDelete = async (id: number) => {
     if (!window.confirm('Are you sure you want to delete this expense?')) return;
     try {
@@ -88,6 +105,11 @@ const Expenses = () => {
               ))}
             </tbody>
           </table>
+          {nextCursor && (
+            <button onClick={loadMore} className="btn-primary" disabled={loadingMore}>
+              {loadingMore ? 'Loading...' : 'Load more'}
+            </button>
+          )}
         </div>
       )}
     </div>
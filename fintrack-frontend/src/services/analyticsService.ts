@@ -28,7 +28,20 @@ export interface PredictedExpense {
   monthsConsidered: number;
 }
 
+export interface Dashboard {
+  monthlySummary: MonthlySummary[];
+  yearlySummary: YearlySummary[];
+  categorySummary: CategorySummary[];
+  trends: TrendPoint[];
+  predictedExpense: PredictedExpense;
+}
+
 export const analyticsService = {
+  getDashboard: async (): Promise<Dashboard> => {
+    const response = await api.get('/analytics/dashboard');
+    return response.data;
+  },
+
   getMonthlySummary: async (): Promise<MonthlySummary[]> => {
     const response = await api.get('/analytics/monthly-summary');
     return response.data;
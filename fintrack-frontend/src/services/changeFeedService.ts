@@ -0,0 +1,89 @@
+export interface RollupDelta {
+  month: string;
+  categoryId: number;
+  amount: number;
+  count: number;
+}
+
+export interface ChangeEvent {
+  type: 'change' | 'resync';
+  source?: 'expenses' | 'categories' | 'rollups';
+  deltas?: RollupDelta[];
+}
+
+const RECONNECT_DELAY_MS = 5000;
+
+// EventSource cannot send the Authorization header, so the stream is read through fetch.
+export const changeFeedService = {
+  subscribe: (onEvent: (event: ChangeEvent) => void): (() => void) => {
+    const controller = new AbortController();
+    let reconnectTimer: ReturnType<typeof setTimeout> | undefined;
+    let connectedBefore = false;
+
+    const dispatch = (block: string) => {
+      let name = 'message';
+      const data: string[] = [];
+      for (const line of block.split('\n')) {
+        if (line.startsWith('event:')) {
+          name = line.slice(6).trim();
+        } else if (line.startsWith('data:')) {
+          data.push(line.slice(5).replace(/^ /, ''));
+        }
+      }
+      if (name === 'change') {
+        const payload = data.length > 0 ? JSON.parse(data.join('\n')) : {};
+        onEvent({ type: 'change', source: payload.source, deltas: payload.deltas });
+      } else if (name === 'resync') {
+        onEvent({ type: 'resync' });
+      }
+    };
+
+    const connect = async () => {
+      try {
+        const token = localStorage.getItem('fintrack_token');
+        const response = await fetch('/api/changes/stream', {
+          headers: token ? { Authorization: `Bearer ${token}` } : {},
+          signal: controller.signal
+        });
+        if (!response.ok || !response.body) {
+          throw new Error(`Change feed responded with ${response.status}`);
+        }
+        if (connectedBefore) {
+          // anything may have changed while disconnected
+          onEvent({ type: 'resync' });
+        }
+        connectedBefore = true;
+        const reader = response.body.getReader();
+        const decoder = new TextDecoder();
+        let buffer = '';
+        for (;;) {
+          const { done, value } = await reader.read();
+          if (done) {
+            break;
+          }
+          buffer += decoder.decode(value, { stream: true }).replace(/\r\n?/g, '\n');
+          let boundary = buffer.indexOf('\n\n');
+          while (boundary >= 0) {
+            dispatch(buffer.slice(0, boundary));
+            buffer = buffer.slice(boundary + 2);
+            boundary = buffer.indexOf('\n\n');
+          }
+        }
+      } catch (error) {
+        if (controller.signal.aborted) {
+          return;
+        }
+        console.error('Change feed error:', error);
+      }
+      if (!controller.signal.aborted) {
+        reconnectTimer = setTimeout(connect, RECONNECT_DELAY_MS);
+      }
+    };
+
+    connect();
+    return () => {
+      controller.abort();
+      clearTimeout(reconnectTimer);
+    };
+  }
+};
@@ -8,6 +8,7 @@ export interface Expense {
   description: string;
   date: string;
   paymentMode: string;
+  version: number;
 }
 
 export interface ExpenseRequest {
@@ -18,9 +19,16 @@ export interface ExpenseRequest {
   paymentMode: string;
 }
 
+export interface ExpensePage {
+  items: Expense[];
+  nextCursor: string | null;
+}
+
 export const expenseService = {
-  getAll: async (): Promise<Expense[]> => {
-    const response = await api.get('/expenses');
+  getPage: async (cursor?: string | null, limit = 50): Promise<ExpensePage> => {
+    const response = await api.get('/expenses', {
+      params: { cursor: cursor ?? undefined, limit }
+    });
     return response.data;
   },
 
@@ -34,8 +42,10 @@ export const expenseService = {
     return response.data;
   },
 
-  update: async (id: number, data: ExpenseRequest): Promise<Expense> => {
-    const response = await api.put(`/expenses/${id}`, data);
+  update: async (id: number, data: ExpenseRequest, version?: number): Promise<Expense> => {
+    const response = await api.put(`/expenses/${id}`, data, {
+      headers: version === undefined ? undefined : { 'If-Match': `"${version}"` }
+    });
     return response.data;
   },
 
@@ -1,8 +1,16 @@
 import api from './api';
 
+export interface ReportParams {
+  from?: string;
+  to?: string;
+  paymentMode?: string;
+  summary?: boolean;
+}
+
 export const reportService = {
-  exportCsv: async (): Promise<void> => {
+  exportCsv: async (params?: ReportParams): Promise<void> => {
     const response = await api.get('/reports/export/csv', {
+      params,
       responseType: 'blob'
     });
     const url = window.URL.createObjectURL(new Blob([response.data]));
@@ -15,8 +23,9 @@ export const reportService = {
     window.URL.revokeObjectURL(url);
   },
 
-  exportPdf: async (): Promise<void> => {
+  exportPdf: async (params?: ReportParams): Promise<void> => {
     const response = await api.get('/reports/export/pdf', {
+      params,
       responseType: 'blob'
     });
     const url = window.URL.createObjectURL(new Blob([response.data]));